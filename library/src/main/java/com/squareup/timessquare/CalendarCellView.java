@@ -3,10 +3,23 @@
 package com.squareup.timessquare;
 
 import android.content.Context;
+import android.content.res.ColorStateList;
+import android.graphics.Canvas;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.text.BoringLayout;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
 import android.util.AttributeSet;
+import android.view.Gravity;
 import android.widget.FrameLayout;
 import android.widget.TextView;
 
+/**
+ * A day of a {@link MonthView}.  The {@link DayViewAdapter} fills it with child views, or with
+ * {@link DefaultDayViewAdapter} the cell draws its day number itself and has no children.
+ */
 public class CalendarCellView extends FrameLayout {
   private static final int[] STATE_SELECTABLE = {
       R.attr.tsquare_state_selectable
@@ -20,6 +33,9 @@ public class CalendarCellView extends FrameLayout {
   private static final int[] STATE_HIGHLIGHTED = {
       R.attr.tsquare_state_highlighted
   };
+  private static final int[] STATE_PENDING = {
+      R.attr.tsquare_state_pending
+  };
   private static final int[] STATE_RANGE_FIRST = {
       R.attr.tsquare_state_range_first
   };
@@ -34,8 +50,12 @@ public class CalendarCellView extends FrameLayout {
   private boolean isCurrentMonth = false;
   private boolean isToday = false;
   private boolean isHighlighted = false;
+  private boolean isPending = false;
   private RangeState rangeState = RangeState.NONE;
   private TextView dayOfMonthTextView;
+  /** Whether {@link #dayOfMonthTextView} isn't a child, and this draws its text instead. */
+  private boolean drawsDayOfMonth;
+  private Layout dayOfMonthLayout;
 
   @SuppressWarnings("UnusedDeclaration") //
   public CalendarCellView(Context context, AttributeSet attrs) {
@@ -77,6 +97,13 @@ public class CalendarCellView extends FrameLayout {
     }
   }
 
+  public void setPending(boolean isPending) {
+    if (this.isPending != isPending) {
+      this.isPending = isPending;
+      refreshDrawableState();
+    }
+  }
+
   public boolean isCurrentMonth() {
     return isCurrentMonth;
   }
@@ -93,12 +120,16 @@ public class CalendarCellView extends FrameLayout {
     return isHighlighted;
   }
 
+  public boolean isPending() {
+    return isPending;
+  }
+
   public RangeState getRangeState() {
     return rangeState;
   }
 
   @Override protected int[] onCreateDrawableState(int extraSpace) {
-    final int[] drawableState = super.onCreateDrawableState(extraSpace + 5);
+    final int[] drawableState = super.onCreateDrawableState(extraSpace + 6);
 
     if (isSelectable) {
       mergeDrawableStates(drawableState, STATE_SELECTABLE);
@@ -116,6 +147,10 @@ public class CalendarCellView extends FrameLayout {
       mergeDrawableStates(drawableState, STATE_HIGHLIGHTED);
     }
 
+    if (isPending) {
+      mergeDrawableStates(drawableState, STATE_PENDING);
+    }
+
     if (rangeState == RangeState.FIRST) {
       mergeDrawableStates(drawableState, STATE_RANGE_FIRST);
     } else if (rangeState == RangeState.MIDDLE) {
@@ -129,6 +164,14 @@ public class CalendarCellView extends FrameLayout {
 
   public void setDayOfMonthTextView(TextView textView) {
     dayOfMonthTextView = textView;
+    dayOfMonthLayout = null;
+    boolean drawsDayOfMonth =
+        textView instanceof DrawnTextView && ((DrawnTextView) textView).cell == this;
+    if (this.drawsDayOfMonth != drawsDayOfMonth) {
+      this.drawsDayOfMonth = drawsDayOfMonth;
+      setWillNotDraw(!drawsDayOfMonth);
+      requestLayout();
+    }
   }
 
   public TextView getDayOfMonthTextView() {
@@ -139,4 +182,176 @@ public class CalendarCellView extends FrameLayout {
     }
     return dayOfMonthTextView;
   }
+
+  @Override protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+    super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    if (drawsDayOfMonth) {
+      int textHeight = dayOfMonthHeight(dayOfMonthLayout(getMeasuredWidth()))
+          + getPaddingTop() + getPaddingBottom();
+      if (getMeasuredHeight() < textHeight) {
+        setMeasuredDimension(getMeasuredWidth(), resolveSize(textHeight, heightMeasureSpec));
+      }
+    }
+  }
+
+  @Override protected void onDraw(Canvas canvas) {
+    super.onDraw(canvas);
+    if (!drawsDayOfMonth) {
+      return;
+    }
+    // Drawn where the text view would be as this cell's child: as wide as the cell, as tall as its
+    // text and centered vertically, with the cell's state duplicated.
+    TextView textView = dayOfMonthTextView;
+    Layout layout = dayOfMonthLayout(getWidth());
+    int[] state = getDrawableState();
+    int height = dayOfMonthHeight(layout);
+    int left = getPaddingLeft();
+    int top = getPaddingTop() + (getHeight() - getPaddingTop() - getPaddingBottom() - height) / 2;
+    Drawable background = textView.getBackground();
+    if (background != null) {
+      background.setBounds(left, top, getWidth() - getPaddingRight(), top + height);
+      background.setState(state);
+      background.draw(canvas);
+    }
+    TextPaint paint = textView.getPaint();
+    paint.drawableState = state;
+    paint.setColor(
+        textView.getTextColors().getColorForState(state, textView.getCurrentTextColor()));
+    canvas.save();
+    canvas.translate(left + textView.getPaddingLeft(), top + textView.getPaddingTop());
+    layout.draw(canvas);
+    canvas.restore();
+  }
+
+  private int dayOfMonthHeight(Layout layout) {
+    return layout.getHeight() + dayOfMonthTextView.getPaddingTop()
+        + dayOfMonthTextView.getPaddingBottom();
+  }
+
+  /** Returns the day number laid out for a cell {@code width} wide, as its text view would. */
+  @SuppressWarnings("deprecation") // StaticLayout.Builder needs API 23.
+  private Layout dayOfMonthLayout(int width) {
+    TextView textView = dayOfMonthTextView;
+    int textWidth = Math.max(0, width - getPaddingLeft() - getPaddingRight()
+        - textView.getPaddingLeft() - textView.getPaddingRight());
+    if (dayOfMonthLayout == null || dayOfMonthLayout.getWidth() != textWidth) {
+      CharSequence text = textView.getText();
+      TextPaint paint = textView.getPaint();
+      Layout.Alignment alignment = getAlignment(textView.getGravity());
+      BoringLayout.Metrics metrics = BoringLayout.isBoring(text, paint);
+      if (metrics != null) {
+        dayOfMonthLayout =
+            BoringLayout.make(text, paint, textWidth, alignment, 1, 0, metrics, true);
+      } else {
+        dayOfMonthLayout = new StaticLayout(text, paint, textWidth, alignment, 1, 0, true);
+      }
+    }
+    return dayOfMonthLayout;
+  }
+
+  private static Layout.Alignment getAlignment(int gravity) {
+    int horizontalGravity = gravity & Gravity.RELATIVE_HORIZONTAL_GRAVITY_MASK;
+    if (horizontalGravity == Gravity.CENTER_HORIZONTAL) {
+      return Layout.Alignment.ALIGN_CENTER;
+    } else if (horizontalGravity == Gravity.RIGHT || horizontalGravity == Gravity.END) {
+      return Layout.Alignment.ALIGN_OPPOSITE;
+    }
+    return Layout.Alignment.ALIGN_NORMAL;
+  }
+
+  /**
+   * Lays out the drawn day number again and redraws it.  Unless {@code measure}, this cell is only
+   * measured again if the new text is taller or shorter.
+   */
+  void layoutDayOfMonth(boolean measure) {
+    if (dayOfMonthLayout != null) {
+      int height = dayOfMonthLayout.getHeight();
+      dayOfMonthLayout = null;
+      if (!measure && drawsDayOfMonth) {
+        measure = dayOfMonthLayout(getMeasuredWidth()).getHeight() != height;
+      }
+    }
+    if (measure) {
+      requestLayout();
+    }
+    invalidate();
+  }
+
+  /**
+   * Holds the day number and its style for a cell that draws it, without being added to the cell.
+   * Changing the text, its color, size or typeface, or this view's gravity, padding or background
+   * redraws the cell.
+   */
+  static final class DrawnTextView extends TextView {
+    final CalendarCellView cell;
+
+    DrawnTextView(Context context, CalendarCellView cell) {
+      super(context);
+      this.cell = cell;
+    }
+
+    @Override public void setText(CharSequence text, BufferType type) {
+      super.setText(text, type);
+      layoutCell(false);
+    }
+
+    @Override public void setTextColor(int color) {
+      super.setTextColor(color);
+      redrawCell();
+    }
+
+    @Override public void setTextColor(ColorStateList colors) {
+      super.setTextColor(colors);
+      redrawCell();
+    }
+
+    @Override public void setTextSize(int unit, float size) {
+      super.setTextSize(unit, size);
+      layoutCell(true);
+    }
+
+    @Override public void setTypeface(Typeface typeface, int style) {
+      super.setTypeface(typeface, style);
+      layoutCell(true);
+    }
+
+    @Override public void setTypeface(Typeface typeface) {
+      super.setTypeface(typeface);
+      layoutCell(true);
+    }
+
+    @Override public void setGravity(int gravity) {
+      super.setGravity(gravity);
+      layoutCell(false);
+    }
+
+    @Override public void setPadding(int left, int top, int right, int bottom) {
+      super.setPadding(left, top, right, bottom);
+      layoutCell(true);
+    }
+
+    @SuppressWarnings("deprecation") // setBackground() and setBackgroundResource() call this.
+    @Override public void setBackgroundDrawable(Drawable background) {
+      super.setBackgroundDrawable(background);
+      layoutCell(true);
+    }
+
+    @Override public void setBackgroundColor(int color) {
+      super.setBackgroundColor(color);
+      redrawCell();
+    }
+
+    private void layoutCell(boolean measure) {
+      // The setters are called from the super constructor too, before cell is set.
+      if (cell != null) {
+        cell.layoutDayOfMonth(measure);
+      }
+    }
+
+    private void redrawCell() {
+      if (cell != null) {
+        cell.invalidate();
+      }
+    }
+  }
 }
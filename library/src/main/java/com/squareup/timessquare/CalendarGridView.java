@@ -7,6 +7,7 @@ import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Typeface;
 import android.util.AttributeSet;
+import android.util.SparseIntArray;
 import android.view.View;
 import android.view.ViewGroup;
 
@@ -28,8 +29,16 @@ public class CalendarGridView extends ViewGroup {
   private static final float FLOAT_FUDGE = 0.5f;
 
   private final Paint dividerPaint = new Paint();
-  private int oldWidthMeasureSize;
-  private int oldNumRows;
+  /**
+   * Points of the dividers, drawn in one go: a line under each of the 7 rows, and one on the left
+   * and right of each of the 7 columns.
+   */
+  private final float[] dividers = new float[4 * (7 + 8)];
+  private int dividerCount;
+  /** Width of cells when rows were last measured. */
+  private int cellSize;
+  /** Geometry shared with other grids, if they have a fixed geometry. */
+  private MeasureCache measureCache;
 
   public CalendarGridView(Context context, AttributeSet attrs) {
     super(context, attrs);
@@ -87,52 +96,35 @@ public class CalendarGridView extends ViewGroup {
 
   @Override protected void dispatchDraw(Canvas canvas) {
     super.dispatchDraw(canvas);
-    final ViewGroup row = (ViewGroup) getChildAt(1);
-    int top = row.getTop();
-    int bottom = getBottom();
-    // Left side border.
-    final int left = row.getChildAt(0).getLeft() + getLeft();
-    canvas.drawLine(left + FLOAT_FUDGE, top, left + FLOAT_FUDGE, bottom, dividerPaint);
-
-    // Each cell's right-side border.
-    for (int c = 0; c < 7; c++) {
-      float x = left + row.getChildAt(c).getRight() - FLOAT_FUDGE;
-      canvas.drawLine(x, top, x, bottom, dividerPaint);
-    }
-  }
-
-  @Override protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
-    final boolean retVal = super.drawChild(canvas, child, drawingTime);
-    // Draw a bottom border.
-    final int bottom = child.getBottom() - 1;
-    canvas.drawLine(child.getLeft(), bottom, child.getRight() - 2, bottom, dividerPaint);
-    return retVal;
+    canvas.drawLines(dividers, 0, dividerCount, dividerPaint);
   }
 
   @Override protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
     Logr.d("Grid.onMeasure w=%s h=%s", MeasureSpec.toString(widthMeasureSpec),
         MeasureSpec.toString(heightMeasureSpec));
-    int widthMeasureSize = MeasureSpec.getSize(widthMeasureSpec);
-    if (oldWidthMeasureSize == widthMeasureSize) {
-      Logr.d("SKIP Grid.onMeasure");
-      setMeasuredDimension(getMeasuredWidth(), getMeasuredHeight());
-      return;
-    }
     long start = System.currentTimeMillis();
-    oldWidthMeasureSize = widthMeasureSize;
+    int widthMeasureSize = MeasureSpec.getSize(widthMeasureSpec);
     int cellSize = widthMeasureSize / 7;
     // Remove any extra pixels since /7 is unlikely to give whole nums.
     widthMeasureSize = cellSize * 7;
+    boolean cellSizeChanged = cellSize != this.cellSize;
+    this.cellSize = cellSize;
     int totalHeight = 0;
     final int rowWidthSpec = makeMeasureSpec(widthMeasureSize, EXACTLY);
     // Most cells are gonna be cellSize tall, but we want to allow custom cells to be taller.
     final int rowHeightSpec = makeMeasureSpec(widthMeasureSize, AT_MOST);
+    // Rows only measure their cells again if these specs changed, or if cells changed.
     for (int c = 0, numChildren = getChildCount(); c < numChildren; c++) {
       final View child = getChildAt(c);
-      child.setMinimumHeight(cellSize);
+      if (cellSizeChanged) {
+        child.setMinimumHeight(cellSize);
+      }
       if (child.getVisibility() == View.VISIBLE) {
         if (c == 0) { // It's the header: height should be wrap_content.
-          measureChild(child, rowWidthSpec, makeMeasureSpec(cellSize, AT_MOST));
+          measureHeader(child, rowWidthSpec, widthMeasureSize, cellSize);
+        } else if (measureCache != null) {
+          // Fixed geometry: rows are as tall as cells are wide, whatever their layout params.
+          child.measure(rowWidthSpec, makeMeasureSpec(cellSize, EXACTLY));
         } else {
           measureChild(child, rowWidthSpec, rowHeightSpec);
         }
@@ -144,6 +136,22 @@ public class CalendarGridView extends ViewGroup {
     Logr.d("Grid.onMeasure %d ms", System.currentTimeMillis() - start);
   }
 
+  /**
+   * Measures the header row, to the height grids of this width sharing {@link #measureCache}
+   * found, if they did.
+   */
+  private void measureHeader(View header, int rowWidthSpec, int width, int cellSize) {
+    int height = measureCache != null ? measureCache.getHeaderHeight(width) : -1;
+    if (height >= 0) {
+      header.measure(rowWidthSpec, makeMeasureSpec(height, EXACTLY));
+      return;
+    }
+    measureChild(header, rowWidthSpec, makeMeasureSpec(cellSize, AT_MOST));
+    if (measureCache != null) {
+      measureCache.putHeaderHeight(width, header.getMeasuredHeight());
+    }
+  }
+
   @Override protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
     long start = System.currentTimeMillis();
     top = 0;
@@ -153,14 +161,79 @@ public class CalendarGridView extends ViewGroup {
       child.layout(left, top, right, top + rowHeight);
       top += rowHeight;
     }
+    layoutDividers();
     Logr.d("Grid.onLayout %d ms", System.currentTimeMillis() - start);
   }
 
+  /** Finds where the dividers go, once for each layout rather than on every draw. */
+  private void layoutDividers() {
+    int count = 0;
+    // A bottom border for each row.
+    for (int c = 0, numChildren = getChildCount(); c < numChildren; c++) {
+      final View child = getChildAt(c);
+      if (child.getVisibility() == VISIBLE) {
+        final int bottom = child.getBottom() - 1;
+        count = addDivider(count, child.getLeft(), bottom, child.getRight() - 2, bottom);
+      }
+    }
+
+    final ViewGroup row = (ViewGroup) getChildAt(1);
+    int top = row.getTop();
+    int bottom = getBottom();
+    // Left side border.
+    final int left = row.getChildAt(0).getLeft() + getLeft();
+    count = addDivider(count, left + FLOAT_FUDGE, top, left + FLOAT_FUDGE, bottom);
+
+    // Each cell's right-side border.
+    for (int c = 0; c < 7; c++) {
+      float x = left + row.getChildAt(c).getRight() - FLOAT_FUDGE;
+      count = addDivider(count, x, top, x, bottom);
+    }
+    dividerCount = count;
+  }
+
+  private int addDivider(int count, float startX, float startY, float stopX, float stopY) {
+    dividers[count++] = startX;
+    dividers[count++] = startY;
+    dividers[count++] = stopX;
+    dividers[count++] = stopY;
+    return count;
+  }
+
+  /**
+   * Has no effect: the number of rows is derived from this grid's children.
+   *
+   * @deprecated Add or remove week rows instead.
+   */
+  @Deprecated
   public void setNumRows(int numRows) {
-    if (oldNumRows != numRows) {
-      // If the number of rows changes, make sure we do a re-measure next time around.
-      oldWidthMeasureSize = 0;
+  }
+
+  /**
+   * Gives this grid a fixed geometry, where body rows are exactly as tall as cells are wide and the
+   * header is as tall as it was in other grids sharing {@code cache}, or a flexible one if null.
+   */
+  void setMeasureCache(MeasureCache cache) {
+    if (measureCache != cache) {
+      measureCache = cache;
+      requestLayout();
+    }
+  }
+
+  /**
+   * The geometry shared by the grids of a picker with a fixed geometry: the height of the header
+   * by the width of the grid.  A new cache is needed when the header's style changes.
+   */
+  static final class MeasureCache {
+    private final SparseIntArray headerHeights = new SparseIntArray();
+
+    /** Returns the height of the header of grids {@code width} wide, or -1 if it's not known. */
+    int getHeaderHeight(int width) {
+      return headerHeights.get(width, -1);
+    }
+
+    void putHeaderHeight(int width, int height) {
+      headerHeights.put(width, height);
     }
-    oldNumRows = numRows;
   }
 }
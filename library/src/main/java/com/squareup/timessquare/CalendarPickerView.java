@@ -6,8 +6,10 @@ import android.content.Context;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
 import android.graphics.Typeface;
-import android.text.format.DateUtils;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.AttributeSet;
+import android.util.SparseArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -17,26 +19,23 @@ import android.widget.Toast;
 import java.text.DateFormat;
 import java.text.DateFormatSymbols;
 import java.text.SimpleDateFormat;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
-import java.util.Formatter;
 import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.Executor;
 
-import static java.util.Calendar.DATE;
-import static java.util.Calendar.DAY_OF_MONTH;
-import static java.util.Calendar.DAY_OF_WEEK;
 import static java.util.Calendar.HOUR_OF_DAY;
 import static java.util.Calendar.MILLISECOND;
 import static java.util.Calendar.MINUTE;
-import static java.util.Calendar.MONTH;
 import static java.util.Calendar.SECOND;
-import static java.util.Calendar.YEAR;
 
 /**
  * Android component to allow picking a date from a calendar view (a list of months).  Must be
@@ -64,26 +63,57 @@ public class CalendarPickerView extends ListView {
     RANGE
   }
 
-  // List of languages that require manually creation of YYYY MMMM date format
-  private static final ArrayList<String> explicitlyNumericYearLocaleLanguages =
-      new ArrayList<>(Arrays.asList("ar", "my"));
+  /** Months paged in at a time by {@link #initUnbounded}. */
+  private static final int PAGE_MONTHS = 12;
+  /** How near either end the list gets before more months are paged in. */
+  private static final int PAGE_MARGIN = 3;
+  /** Most months kept by {@link #initUnbounded}. */
+  private static final int MAX_UNBOUNDED_MONTHS = 3 * PAGE_MONTHS + 1;
+  /** Months either side of the ones shown whose availability is loaded ahead of time. */
+  private static final int AVAILABILITY_PREFETCH = 2;
 
   private final CalendarPickerView.MonthAdapter adapter;
-  private final IndexedLinkedHashMap<String, List<List<MonthCellDescriptor>>> cells =
-      new IndexedLinkedHashMap<>();
+  private final LayoutInflater inflater;
+  /** Shows the months: this list, unless a {@link CalendarRecyclerView} shows them instead. */
+  private Host host = new ListHost();
+  /** Range of month indices whose cells changed since they were last bound, if any. */
+  private int firstChangedMonth = Integer.MAX_VALUE;
+  private int lastChangedMonth = Integer.MIN_VALUE;
+  /** Cells of each month keyed by month index.  Only holds the months built so far. */
+  final SparseArray<MonthCells> cells = new SparseArray<>();
   final MonthView.Listener listener = new CellClickedListener();
-  final List<MonthDescriptor> months = new ArrayList<>();
+  final MonthList months = new MonthList();
   final List<MonthCellDescriptor> selectedCells = new ArrayList<>();
-  final List<MonthCellDescriptor> highlightedCells = new ArrayList<>();
   final List<Calendar> selectedCals = new ArrayList<>();
-  final List<Calendar> highlightedCals = new ArrayList<>();
+  /** What the months show on top of their templates: selection, highlights and today. */
+  final PickerState state = new PickerState();
+  /** Epoch days of {@link #selectedCals}, for constant time lookups. */
+  final DaySet selectedDays = state.selectedDays;
+  final DaySet highlightedDays = state.highlightedDays;
+  /** The selected range in {@link SelectionMode#RANGE} mode, once both of its ends are chosen. */
+  final DayRange range = state.range;
   private Locale locale;
   private TimeZone timeZone;
   private DateFormat weekdayNameFormat;
   private DateFormat fullDateFormat;
   private Calendar minCal;
   private Calendar maxCal;
-  private Calendar monthCounter;
+  /** Epoch days of the first and last selectable dates. */
+  private int minDay;
+  private int maxDay;
+  private int firstDayOfWeek;
+  private int firstMonth;
+  /** Whether months are paged in and out around the ones shown; see {@link #initUnbounded}. */
+  private boolean unbounded;
+  private boolean pagingPosted;
+  private boolean lazyMonthCells;
+  private Executor monthCellsExecutor;
+  /** Builds the cells of every month in the background after init(), if there's an executor. */
+  private MonthCellsLoader monthCellsLoader;
+  private AvailabilityProvider availabilityProvider;
+  private Executor availabilityExecutor;
+  /** Availability being loaded, keyed by absolute month. */
+  private final SparseArray<AvailabilityRequest> availabilityRequests = new SparseArray<>();
   private boolean displayOnly;
   SelectionMode selectionMode;
   Calendar today;
@@ -104,17 +134,22 @@ public class CalendarPickerView extends ListView {
       new DefaultOnInvalidDateSelectedListener();
   private CellClickInterceptor cellClickInterceptor;
   private List<CalendarCellDecorator> decorators;
+  private List<MonthDecorator> monthDecorators;
   private DayViewAdapter dayViewAdapter = new DefaultDayViewAdapter();
+  /** Changes with {@link #dayViewAdapter}, as month views made for another can't be reused. */
+  private int monthViewType;
+  private MonthViewPool monthViewPool;
+  /** Whether each month is drawn by one {@link CanvasMonthView}. */
+  private boolean canvasMonths;
+  /** Geometry shared by month views if they have a fixed geometry, or null. */
+  private CalendarGridView.MeasureCache measureCache;
 
   private boolean monthsReverseOrder;
 
-  private final StringBuilder monthBuilder = new StringBuilder(50);
-  private Formatter monthFormatter;
-
   public void setDecorators(List<CalendarCellDecorator> decorators) {
     this.decorators = decorators;
     if (null != adapter) {
-      adapter.notifyDataSetChanged();
+      updateMonths();
     }
   }
 
@@ -122,6 +157,29 @@ public class CalendarPickerView extends ListView {
     return decorators;
   }
 
+  /**
+   * Set decorators that decorate a month at a time.  Unlike {@link #setDecorators(List)}, they're
+   * only run for the months they affect, and only again once the month or their version changes.
+   */
+  public void setMonthDecorators(List<MonthDecorator> monthDecorators) {
+    this.monthDecorators = monthDecorators;
+    if (null != adapter) {
+      updateMonths();
+    }
+  }
+
+  public List<MonthDecorator> getMonthDecorators() {
+    return monthDecorators;
+  }
+
+  /**
+   * Runs the month decorators whose {@link MonthDecorator#getVersion() version} changed again,
+   * without binding the months themselves again.
+   */
+  public void refreshDecorations() {
+    updateMonths();
+  }
+
   public CalendarPickerView(Context context, AttributeSet attrs) {
     super(context, attrs);
 
@@ -146,17 +204,18 @@ public class CalendarPickerView extends ListView {
             a.getBoolean(R.styleable.CalendarPickerView_tsquare_displayAlwaysDigitNumbers, false);
     a.recycle();
 
+    inflater = LayoutInflater.from(context);
     adapter = new MonthAdapter();
     setDivider(null);
     setDividerHeight(0);
     setBackgroundColor(bg);
     setCacheColorHint(bg);
     timeZone = TimeZone.getDefault();
+    state.timeZone = timeZone;
     locale = Locale.getDefault();
     today = Calendar.getInstance(timeZone, locale);
     minCal = Calendar.getInstance(timeZone, locale);
     maxCal = Calendar.getInstance(timeZone, locale);
-    monthCounter = Calendar.getInstance(timeZone, locale);
     weekdayNameFormat = new SimpleDateFormat(context.getString(R.string.day_name_format), locale);
     weekdayNameFormat.setTimeZone(timeZone);
     fullDateFormat = DateFormat.getDateInstance(DateFormat.MEDIUM, locale);
@@ -189,6 +248,42 @@ public class CalendarPickerView extends ListView {
    * @param maxDate Latest selectable date, exclusive.  Must be later than {@code minDate}.
    */
   public FluentInitializer init(Date minDate, Date maxDate, TimeZone timeZone, Locale locale) {
+    return init(minDate, maxDate, timeZone, locale, false);
+  }
+
+  /**
+   * Shows the months around {@code date} with no first or last selectable date: more months are
+   * paged in as the list nears either end, and months far from the ones shown are dropped, so the
+   * picker uses the same memory however far it's scrolled.  Selected and highlighted dates stay
+   * selected and highlighted while their months are paged out.
+   * <p>
+   * Like {@link #init(Date, Date, TimeZone, Locale)}, this sets the {@link SelectionMode} to
+   * {@link SelectionMode#SINGLE} and can be customized with the {@link FluentInitializer} it
+   * returns.
+   *
+   * @param date Date whose month is shown first.
+   */
+  public FluentInitializer initUnbounded(Date date, TimeZone timeZone, Locale locale) {
+    if (date == null) {
+      throw new IllegalArgumentException("date must be non-null.");
+    }
+    if (timeZone == null) {
+      throw new IllegalArgumentException("Time zone is null.");
+    }
+    int month = EpochDay.absoluteMonth(EpochDay.of(date, timeZone));
+    Date minDate = EpochDay.toDate(EpochDay.firstDayOfMonth(month - PAGE_MONTHS), timeZone);
+    Date maxDate = EpochDay.toDate(EpochDay.firstDayOfMonth(month + PAGE_MONTHS + 1), timeZone);
+    FluentInitializer initializer = init(minDate, maxDate, timeZone, locale, true);
+    scrollToSelectedMonth(PAGE_MONTHS);
+    return initializer;
+  }
+
+  /**
+   * Shows the months from {@code minDate} to {@code maxDate}.  If {@code unbounded}, those are
+   * only the months shown at first and every date is in range.
+   */
+  private FluentInitializer init(Date minDate, Date maxDate, TimeZone timeZone, Locale locale,
+      boolean unbounded) {
     if (minDate == null || maxDate == null) {
       throw new IllegalArgumentException(
           "minDate and maxDate must be non-null.  " + dbg(minDate, maxDate));
@@ -206,31 +301,28 @@ public class CalendarPickerView extends ListView {
 
     // Make sure that all calendar instances use the same time zone and locale.
     this.timeZone = timeZone;
+    state.timeZone = timeZone;
     this.locale = locale;
     today = Calendar.getInstance(timeZone, locale);
     minCal = Calendar.getInstance(timeZone, locale);
     maxCal = Calendar.getInstance(timeZone, locale);
-    monthCounter = Calendar.getInstance(timeZone, locale);
-    for (MonthDescriptor month : months) {
-      month.setLabel(formatMonthDate(month.getDate()));
-    }
     weekdayNameFormat =
         new SimpleDateFormat(getContext().getString(R.string.day_name_format), locale);
     weekdayNameFormat.setTimeZone(timeZone);
     fullDateFormat = DateFormat.getDateInstance(DateFormat.MEDIUM, locale);
     fullDateFormat.setTimeZone(timeZone);
-    monthFormatter = new Formatter(monthBuilder, locale);
 
     this.selectionMode = SelectionMode.SINGLE;
     // Clear out any previously-selected dates/cells.
     selectedCals.clear();
+    selectedDays.clear();
+    range.clear();
     selectedCells.clear();
-    highlightedCals.clear();
-    highlightedCells.clear();
+    highlightedDays.clear();
 
     // Clear previous state.
     cells.clear();
-    months.clear();
+    cancelAvailabilityRequests();
     minCal.setTime(minDate);
     maxCal.setTime(maxDate);
     setMidnight(minCal);
@@ -240,26 +332,200 @@ public class CalendarPickerView extends ListView {
     // maxDate is exclusive: bump back to the previous day so if maxDate is the first of a month,
     // we don't accidentally include that month in the view.
     maxCal.add(MINUTE, -1);
+    int firstDay = EpochDay.of(minCal);
+    int lastDay = EpochDay.of(maxCal);
+    this.unbounded = unbounded;
+    minDay = unbounded ? Integer.MIN_VALUE : firstDay;
+    maxDay = unbounded ? Integer.MAX_VALUE : lastDay;
+    firstDayOfWeek = minCal.getFirstDayOfWeek();
+
+    // Months are addressed by their distance from the month of minCal, up to and including the
+    // month of maxCal.
+    firstMonth = EpochDay.absoluteMonth(firstDay);
+    months.reset(Math.max(0, EpochDay.absoluteMonth(lastDay) - firstMonth + 1));
+    state.today = EpochDay.of(today);
+    // Start with the month shown first.
+    buildMonths(monthIndex(state.today));
 
-    // Now iterate between minCal and maxCal and build up our list of months to show.
-    monthCounter.setTime(minCal.getTime());
-    final int maxMonth = maxCal.get(MONTH);
-    final int maxYear = maxCal.get(YEAR);
-    while ((monthCounter.get(MONTH) <= maxMonth // Up to, including the month.
-        || monthCounter.get(YEAR) < maxYear) // Up to the year.
-        && monthCounter.get(YEAR) < maxYear + 1) { // But not > next yr.
-      Date date = monthCounter.getTime();
-      MonthDescriptor month =
-          new MonthDescriptor(monthCounter.get(MONTH), monthCounter.get(YEAR),
-                  date, formatMonthDate(date));
-      cells.put(monthKey(month), getMonthCells(month, monthCounter));
-      Logr.d("Adding month %s", month);
-      months.add(month);
-      monthCounter.add(MONTH, 1);
+    validateAndUpdate();
+    return new FluentInitializer();
+  }
+
+  /**
+   * Moves the first and last selectable dates without starting over.  Unlike
+   * {@link #init(Date, Date)}, this keeps the months that stay in range, the selection and the
+   * scroll position: only months that are added, removed or at either end of the old or the new
+   * range are touched, so moving a rolling window by a day costs about a month of work.  Selected
+   * dates that fall outside the new range are unselected.
+   * <p>
+   * Must be called after {@link #init(Date, Date)}.  Time of day is ignored as it is there.
+   *
+   * @param minDate Earliest selectable date, inclusive.  Must be earlier than {@code maxDate}.
+   * @param maxDate Latest selectable date, exclusive.  Must be later than {@code minDate}.
+   */
+  public void setDateRange(Date minDate, Date maxDate) {
+    if (minDate == null || maxDate == null) {
+      throw new IllegalArgumentException(
+          "minDate and maxDate must be non-null.  " + dbg(minDate, maxDate));
+    }
+    if (minDate.after(maxDate)) {
+      throw new IllegalArgumentException(
+          "minDate must be before maxDate.  " + dbg(minDate, maxDate));
+    }
+    if (months.isEmpty()) {
+      throw new IllegalStateException("Must call init() before setDateRange().");
+    }
+    if (unbounded) {
+      throw new IllegalStateException("setDateRange() can't be used after initUnbounded().");
     }
 
+    int oldLastMonth = firstMonth + months.size() - 1;
+    minCal.setTime(minDate);
+    maxCal.setTime(maxDate);
+    setMidnight(minCal);
+    setMidnight(maxCal);
+    maxCal.add(MINUTE, -1);
+    minDay = EpochDay.of(minCal);
+    maxDay = EpochDay.of(maxCal);
+    int newFirstMonth = EpochDay.absoluteMonth(minDay);
+    int size = Math.max(0, EpochDay.absoluteMonth(maxDay) - newFirstMonth + 1);
+
+    // Only the months at the ends of the old and the new range have days changing selectability.
+    int[] ends = {firstMonth, oldLastMonth, newFirstMonth, newFirstMonth + size - 1};
+    for (int absoluteMonth : ends) {
+      MonthCells monthCells = cells.get(absoluteMonth - firstMonth);
+      if (monthCells != null) {
+        updateSelectable(monthCells, minDay, maxDay, dateConfiguredListener);
+      }
+    }
+    unselectOutOfRange();
+    moveMonths(newFirstMonth, size);
+  }
+
+  /**
+   * Shows the {@code size} months from absolute month {@code newFirstMonth} on.  Months that stay
+   * keep their descriptors and cells under their new indices, and the month at the top of the
+   * list keeps its position.
+   */
+  private void moveMonths(int newFirstMonth, int size) {
+    View firstChild = host.findMonthView(host.getFirstVisiblePosition());
+    int top = firstChild == null ? 0 : firstChild.getTop();
+    int firstVisibleMonth = firstMonth + firstVisibleMonthIndex();
+
+    cancelMonthCellsLoader();
+    int offset = newFirstMonth - firstMonth;
+    firstMonth = newFirstMonth;
+    months.shift(offset, size);
+    shiftKeys(cells, offset, size);
+    buildMonths(firstVisibleMonth - firstMonth);
+
     validateAndUpdate();
-    return new FluentInitializer();
+    if (firstChild != null && size > 0) {
+      // Keep the month that was at the top of the list where it was, if it's still there.
+      int monthIndex = firstVisibleMonth - firstMonth;
+      if (!isMonthIndex(monthIndex)) {
+        monthIndex = Math.min(Math.max(monthIndex, 0), size - 1);
+        top = 0;
+      }
+      host.setSelectionFromTop(monthsReverseOrder ? size - 1 - monthIndex : monthIndex, top);
+    }
+  }
+
+  /** Index into {@link #months} of the month at the top of the list. */
+  private int firstVisibleMonthIndex() {
+    int position = host.getFirstVisiblePosition();
+    return monthsReverseOrder ? months.size() - 1 - position : position;
+  }
+
+  /** In unbounded mode, pages in the months around {@code day} unless its month is shown. */
+  private void showMonthOf(int day) {
+    int month = EpochDay.absoluteMonth(day);
+    if (unbounded && !isMonthIndex(month - firstMonth)) {
+      moveMonths(month - PAGE_MONTHS, 2 * PAGE_MONTHS + 1);
+    }
+  }
+
+  /** In unbounded mode, pages in more months once the list shows one near either end. */
+  private void pageMonthsNear(int monthIndex) {
+    if (!unbounded || pagingPosted
+        || (monthIndex >= PAGE_MARGIN && monthIndex < months.size() - PAGE_MARGIN)) {
+      return;
+    }
+    pagingPosted = true;
+    final int month = firstMonth + monthIndex;
+    // Not while the list is laying out its children.
+    host.post(new Runnable() {
+      @Override public void run() {
+        pagingPosted = false;
+        pageMonths(month - firstMonth);
+      }
+    });
+  }
+
+  /**
+   * Pages in {@link #PAGE_MONTHS} months beyond the end {@code monthIndex} is near, and pages out
+   * as many at the other end once there are more than {@link #MAX_UNBOUNDED_MONTHS}.
+   */
+  void pageMonths(int monthIndex) {
+    int newFirstMonth = firstMonth;
+    int size = months.size();
+    if (monthIndex < PAGE_MARGIN) {
+      newFirstMonth -= PAGE_MONTHS;
+      size = Math.min(size + PAGE_MONTHS, MAX_UNBOUNDED_MONTHS);
+    } else if (monthIndex >= size - PAGE_MARGIN) {
+      size += PAGE_MONTHS;
+      if (size > MAX_UNBOUNDED_MONTHS) {
+        newFirstMonth += size - MAX_UNBOUNDED_MONTHS;
+        size = MAX_UNBOUNDED_MONTHS;
+      }
+    } else {
+      return;
+    }
+    moveMonths(newFirstMonth, size);
+  }
+
+  /**
+   * Builds the months that aren't built yet, in the background if there's an executor, starting
+   * with the one at {@code anchorIndex}.  Does nothing if months are built lazily.
+   */
+  private void buildMonths(int anchorIndex) {
+    cancelMonthCellsLoader();
+    if (months.isEmpty()) {
+      return;
+    }
+    if (monthCellsExecutor != null) {
+      anchorIndex = Math.min(Math.max(anchorIndex, 0), months.size() - 1);
+      monthCellsLoader = new MonthCellsLoader(anchorIndex);
+      monthCellsExecutor.execute(monthCellsLoader);
+    } else if (!lazyMonthCells) {
+      for (int monthIndex = 0; monthIndex < months.size(); monthIndex++) {
+        if (cells.get(monthIndex) == null) {
+          getMonthCells(monthIndex);
+          Logr.d("Adding month %s", months.get(monthIndex));
+        }
+      }
+    }
+  }
+
+  /**
+   * Moves each entry of {@code array} from key {@code k} to {@code k - offset}, dropping the
+   * entries whose new key is outside {@code [0, size)}.
+   */
+  static <T> void shiftKeys(SparseArray<T> array, int offset, int size) {
+    if (offset == 0 && (array.size() == 0 || array.keyAt(array.size() - 1) < size)) {
+      return;
+    }
+    SparseArray<T> shifted = new SparseArray<>(array.size());
+    for (int i = 0; i < array.size(); i++) {
+      int key = array.keyAt(i) - offset;
+      if (key >= 0 && key < size) {
+        shifted.put(key, array.valueAt(i));
+      }
+    }
+    array.clear();
+    for (int i = 0; i < shifted.size(); i++) {
+      array.put(shifted.keyAt(i), shifted.valueAt(i));
+    }
   }
 
   /**
@@ -407,10 +673,61 @@ public class CalendarPickerView extends ListView {
   }
 
   private void validateAndUpdate() {
-    if (getAdapter() == null) {
-      setAdapter(adapter);
+    // Any month's state may have changed, so they're all bound again.
+    state.version++;
+    firstChangedMonth = Integer.MAX_VALUE;
+    lastChangedMonth = Integer.MIN_VALUE;
+    host.onMonthsChanged();
+  }
+
+  /**
+   * Binds the months again after a change that may affect any of them.  Months whose cells didn't
+   * change skip most of it.
+   */
+  private void updateMonths() {
+    firstChangedMonth = 0;
+    lastChangedMonth = months.size() - 1;
+    updateChangedMonths();
+  }
+
+  /** Binds the months again whose cells changed; see {@link #invalidateDays(int, int)}. */
+  private void updateChangedMonths() {
+    int first = Math.max(firstChangedMonth, 0);
+    int last = Math.min(lastChangedMonth, months.size() - 1);
+    firstChangedMonth = Integer.MAX_VALUE;
+    lastChangedMonth = Integer.MIN_VALUE;
+    if (first > last) {
+      return;
+    }
+    if (monthsReverseOrder) {
+      host.onMonthsUpdated(months.size() - 1 - last, months.size() - 1 - first);
+    } else {
+      host.onMonthsUpdated(first, last);
+    }
+  }
+
+  /** Marks the built months showing epoch day {@code day} as changed. */
+  private void invalidateDay(int day) {
+    invalidateDays(day, day);
+  }
+
+  /**
+   * Marks the built months showing any of the epoch days from {@code first} to {@code last} as
+   * changed, so the next bind doesn't skip them.
+   */
+  private void invalidateDays(int first, int last) {
+    // A month's first and last weeks show days of the months either side.
+    int from = Math.max(monthIndex(first) - 1, 0);
+    int to = Math.min(monthIndex(last) + 1, months.size() - 1);
+    for (int monthIndex = from; monthIndex <= to; monthIndex++) {
+      MonthCells monthCells = cells.get(monthIndex);
+      if (monthCells != null && monthCells.getFirstDay() <= last
+          && first < monthCells.getFirstDay() + monthCells.size()) {
+        monthCells.invalidate();
+        firstChangedMonth = Math.min(firstChangedMonth, monthIndex);
+        lastChangedMonth = Math.max(lastChangedMonth, monthIndex);
+      }
     }
-    adapter.notifyDataSetChanged();
   }
 
   private void scrollToSelectedMonth(final int selectedIndex) {
@@ -418,57 +735,92 @@ public class CalendarPickerView extends ListView {
   }
 
   private void scrollToSelectedMonth(final int selectedIndex, final boolean smoothScroll) {
-    post(new Runnable() {
+    if (monthCellsLoader != null) {
+      monthCellsLoader.anchor = selectedIndex;
+    }
+    host.post(new Runnable() {
       @Override public void run() {
         Logr.d("Scrolling to position %d", selectedIndex);
 
         if (smoothScroll) {
-          smoothScrollToPosition(selectedIndex);
+          host.smoothScrollToPosition(selectedIndex);
         } else {
-          setSelection(selectedIndex);
+          host.setSelectionFromTop(selectedIndex, 0);
         }
       }
     });
   }
 
-  private void scrollToSelectedDates() {
-    Integer selectedIndex = null;
-    Integer todayIndex = null;
-    Calendar today = Calendar.getInstance(timeZone, locale);
-    for (int c = 0; c < months.size(); c++) {
-      MonthDescriptor month = months.get(c);
-      if (selectedIndex == null) {
-        for (Calendar selectedCal : selectedCals) {
-          if (sameMonth(selectedCal, month)) {
-            selectedIndex = c;
-            break;
-          }
-        }
-        if (selectedIndex == null && todayIndex == null && sameMonth(today, month)) {
-          todayIndex = c;
-        }
-      }
-    }
-    if (selectedIndex != null) {
+  void scrollToSelectedDates() {
+    int selectedIndex = selectedMonthIndex();
+    if (isMonthIndex(selectedIndex)) {
       scrollToSelectedMonth(selectedIndex);
-    } else if (todayIndex != null) {
-      scrollToSelectedMonth(todayIndex);
     }
   }
 
-  public boolean scrollToDate(Date date) {
-    Integer selectedIndex = null;
-
-    Calendar cal = Calendar.getInstance(timeZone, locale);
-    cal.setTime(date);
-    for (int c = 0; c < months.size(); c++) {
-      MonthDescriptor month = months.get(c);
-      if (sameMonth(cal, month)) {
-        selectedIndex = c;
-        break;
+  /**
+   * Returns the index of the earliest month holding a selected date, falling back to the current
+   * month.  This may not be a month index if neither is shown.
+   */
+  private int selectedMonthIndex() {
+    int selectedIndex = -1;
+    if (!selectedDays.isEmpty()) {
+      selectedIndex = monthIndex(selectedDays.first());
+    }
+    if (!isMonthIndex(selectedIndex)) {
+      selectedIndex = monthIndex(EpochDay.of(System.currentTimeMillis(), timeZone));
+    }
+    return selectedIndex;
+  }
+
+  /**
+   * Does the work of showing this picker ahead of time, eg. from an
+   * {@link android.os.MessageQueue.IdleHandler} while the app is idle: builds the cells and
+   * labels of the {@code monthViews} months nearest the selected or current month, and inflates
+   * {@code monthViews} month views into this picker's {@link #setMonthViewPool pool}, if it has
+   * one.
+   * <p>
+   * The next picker created with the same context, styling, locale and {@link DayViewAdapter}
+   * that uses the same pool takes those views instead of inflating its own, and the month
+   * layouts built here are shared by every picker.  So a picker can be prewarmed and shown
+   * later, or a stand-in configured like the one to be shown can be prewarmed and dropped.
+   * <p>
+   * Must be called on the main thread after {@link #init(Date, Date)}.
+   */
+  public void prewarm(int monthViews) {
+    prewarm(monthViews, this);
+  }
+
+  /** Prewarms month views laid out in {@code parent}, which shows this picker's months. */
+  void prewarm(int monthViews, ViewGroup parent) {
+    if (months.isEmpty()) {
+      throw new IllegalStateException("Must call init() before prewarm().");
+    }
+    int anchor = Math.min(Math.max(selectedMonthIndex(), 0), months.size() - 1);
+    int first = Math.max(anchor - monthViews / 2, 0);
+    int last = Math.min(first + monthViews, months.size()) - 1;
+    for (int index = first; index <= last; index++) {
+      getMonthCells(index);
+      MonthDescriptor month = months.get(index);
+      if (month.getLabel() == null) {
+        month.setLabel(formatMonthLabel(month));
       }
     }
-    if (selectedIndex != null) {
+    if (monthViewPool != null && !canvasMonths) {
+      Object key = monthViewKey();
+      for (int i = 0; i < monthViews; i++) {
+        if (!monthViewPool.release(inflateMonthView(parent, key))) {
+          break;
+        }
+      }
+    }
+  }
+
+  public boolean scrollToDate(Date date) {
+    int day = EpochDay.of(date, timeZone);
+    showMonthOf(day);
+    int selectedIndex = monthIndex(day);
+    if (isMonthIndex(selectedIndex)) {
       scrollToSelectedMonth(selectedIndex);
       return true;
     }
@@ -500,7 +852,7 @@ public class CalendarPickerView extends ListView {
    */
   public void setTitleTypeface(Typeface titleTypeface) {
     this.titleTypeface = titleTypeface;
-    validateAndUpdate();
+    updateMonths();
   }
 
   /**
@@ -508,7 +860,11 @@ public class CalendarPickerView extends ListView {
    */
   public void setDateTypeface(Typeface dateTypeface) {
     this.dateTypeface = dateTypeface;
-    validateAndUpdate();
+    if (measureCache != null) {
+      // The day names header is measured again in the new typeface.
+      measureCache = new CalendarGridView.MeasureCache();
+    }
+    updateMonths();
   }
 
   /**
@@ -531,6 +887,19 @@ public class CalendarPickerView extends ListView {
     requestLayout();
   }
 
+  @Override protected void onDetachedFromWindow() {
+    super.onDetachedFromWindow();
+    // Months that weren't built yet are built when they're shown instead.
+    cancelMonthCellsLoader();
+    if (monthViewPool != null) {
+      List<View> views = new ArrayList<>();
+      reclaimViews(views);
+      releaseMonthViews(views);
+      // The views are created again if this is attached again.
+      adapter.notifyDataSetChanged();
+    }
+  }
+
   @Override protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
     if (months.isEmpty()) {
       throw new IllegalStateException(
@@ -543,12 +912,36 @@ public class CalendarPickerView extends ListView {
     return (selectedCals.size() > 0 ? selectedCals.get(0).getTime() : null);
   }
 
+  /**
+   * Returns the selected dates in order.  In {@link SelectionMode#RANGE} mode this is every
+   * selectable date of the range.  The list is the caller's to change.
+   */
   public List<Date> getSelectedDates() {
+    if (!range.isEmpty()) {
+      return getRangeDates();
+    }
+    List<Date> selectedDates = new ArrayList<>(selectedDays.size());
+    for (int day = selectedDays.nextDay(Integer.MIN_VALUE); day != Integer.MAX_VALUE;
+        day = selectedDays.nextDay(day + 1)) {
+      selectedDates.add(EpochDay.toDate(day, timeZone));
+    }
+    return selectedDates;
+  }
+
+  private List<Date> getRangeDates() {
+    final int start = range.getStart();
+    final int end = range.getEnd();
+    final TimeZone timeZone = this.timeZone;
+    if (dateConfiguredListener == null) {
+      // Every day of the range is selectable, so its dates are created as they're asked for.
+      return new RangeDates(start, range.size(), timeZone);
+    }
     List<Date> selectedDates = new ArrayList<>();
-    for (MonthCellDescriptor cal : selectedCells) {
-      selectedDates.add(cal.getDate());
+    for (int day = start; day <= end; day++) {
+      if (day == start || day == end || isSelectableDay(day)) {
+        selectedDates.add(EpochDay.toDate(day, timeZone));
+      }
     }
-    Collections.sort(selectedDates);
     return selectedDates;
   }
 
@@ -572,7 +965,11 @@ public class CalendarPickerView extends ListView {
       if (cellClickInterceptor != null && cellClickInterceptor.onCellClicked(clickedDate)) {
         return;
       }
-      if (!betweenDates(clickedDate, minCal, maxCal) || !isDateSelectable(clickedDate)) {
+      if (cell.isPending()) {
+        // Wait until we know whether it's available.
+        return;
+      }
+      if (!isSelectableDay(cell.getDay())) {
         if (invalidDateListener != null) {
           invalidDateListener.onInvalidDateSelected(clickedDate);
         }
@@ -619,68 +1016,31 @@ public class CalendarPickerView extends ListView {
   public boolean selectDate(Date date, boolean smoothScroll) {
     validateDate(date);
 
-    MonthCellWithMonthIndex monthCellWithMonthIndex = getMonthCellWithIndexByDate(date);
-    if (monthCellWithMonthIndex == null || !isDateSelectable(date)) {
+    int day = EpochDay.of(date, timeZone);
+    showMonthOf(day);
+    MonthCellDescriptor cell = getMonthCellByDay(day);
+    if (cell == null) {
       return false;
     }
-    boolean wasSelected = doSelectDate(date, monthCellWithMonthIndex.cell);
+    int monthIndex = monthIndex(day);
+    boolean wasSelected = doSelectDate(date, cell);
     if (wasSelected) {
-      scrollToSelectedMonth(monthCellWithMonthIndex.monthIndex, smoothScroll);
+      scrollToSelectedMonth(monthIndex, smoothScroll);
     }
     return wasSelected;
   }
 
-  /**
-   * Use {@link DateUtils} to format the dates.
-   *
-   * @see DateUtils
-   */
-  private String formatMonthDate(Date date) {
-    int flags = DateUtils.FORMAT_SHOW_DATE | DateUtils.FORMAT_SHOW_YEAR
-            | DateUtils.FORMAT_NO_MONTH_DAY;
-
-    // Save default Locale
-    Locale defaultLocale = Locale.getDefault();
-
-    // Set new default Locale, the reason to do that is DateUtils.formatDateTime uses
-    // internally this method DateIntervalFormat.formatDateRange to format the date. And this
-    // method uses the default locale.
-    //
-    // More details about the methods:
-    // - DateUtils.formatDateTime: https://goo.gl/3YW52Q
-    // - DateIntervalFormat.formatDateRange: https://goo.gl/RRmfK7
-    Locale.setDefault(locale);
-
-    String dateFormatted;
-    if (displayAlwaysDigitNumbers
-      && explicitlyNumericYearLocaleLanguages.contains(locale.getLanguage())) {
-      StringBuilder sb = new StringBuilder();
-      SimpleDateFormat sdfMonth = new SimpleDateFormat(getContext()
-        .getString(R.string.month_only_name_format), locale);
-      SimpleDateFormat sdfYear = new SimpleDateFormat(getContext()
-        .getString(R.string.year_only_format), Locale.ENGLISH);
-      dateFormatted = sb.append(sdfMonth.format(date.getTime())).append(" ")
-        .append(sdfYear.format(date.getTime())).toString();
-    } else {
-      // Format date using the new Locale
-      dateFormatted = DateUtils.formatDateRange(getContext(), monthFormatter,
-        date.getTime(), date.getTime(), flags, timeZone.getID()).toString();
-    }
-    // Call setLength(0) on StringBuilder passed to the Formatter constructor to not accumulate
-    // the results
-    monthBuilder.setLength(0);
-
-    // Restore default Locale to avoid generating any side effects
-    Locale.setDefault(defaultLocale);
-
-    return dateFormatted;
+  /** Returns the title of {@code month}, as {@link MonthLabels} formats it. */
+  private String formatMonthLabel(MonthDescriptor month) {
+    return MonthLabels.get(getContext(), locale, displayAlwaysDigitNumbers,
+        month.getYear() * 12 + month.getMonth());
   }
 
   private void validateDate(Date date) {
     if (date == null) {
       throw new IllegalArgumentException("Selected date must be non-null.");
     }
-    if (date.before(minCal.getTime()) || date.after(maxCal.getTime())) {
+    if (!isInRange(EpochDay.of(date, timeZone))) {
       throw new IllegalArgumentException(String.format(
           "SelectedDate must be between minDate and maxDate."
               + "%nminDate: %s%nmaxDate: %s%nselectedDate: %s", minCal.getTime(), maxCal.getTime(),
@@ -689,29 +1049,25 @@ public class CalendarPickerView extends ListView {
   }
 
   private boolean doSelectDate(Date date, MonthCellDescriptor cell) {
+    int day = cell.getDay();
     Calendar newlySelectedCal = Calendar.getInstance(timeZone, locale);
     newlySelectedCal.setTime(date);
     // Sanitize input: clear out the hours/minutes/seconds/millis.
     setMidnight(newlySelectedCal);
 
-    // Clear any remaining range state.
-    for (MonthCellDescriptor selectedCell : selectedCells) {
-      selectedCell.setRangeState(RangeState.NONE);
-    }
-
     switch (selectionMode) {
       case RANGE:
         if (selectedCals.size() > 1) {
           // We've already got a range selected: clear the old one.
           clearOldSelections();
-        } else if (selectedCals.size() == 1 && newlySelectedCal.before(selectedCals.get(0))) {
+        } else if (selectedCals.size() == 1 && day < selectedDays.first()) {
           // We're moving the start of the range back in time: clear the old start date.
           clearOldSelections();
         }
         break;
 
       case MULTIPLE:
-        date = applyMultiSelect(date, newlySelectedCal);
+        date = applyMultiSelect(date, day);
         break;
 
       case SINGLE:
@@ -720,171 +1076,163 @@ public class CalendarPickerView extends ListView {
       default:
         throw new IllegalStateException("Unknown selectionMode " + selectionMode);
     }
+    invalidateDay(day);
 
     if (date != null) {
-      // Select a new cell.
-      if (selectedCells.size() == 0 || !selectedCells.get(0).equals(cell)) {
+      // Select a new cell.  Compare days: the first cell's month may have been paged out and built
+      // again since it was selected.
+      if (selectedCells.size() == 0 || selectedCells.get(0).getDay() != day) {
         selectedCells.add(cell);
-        cell.setSelected(true);
       }
       selectedCals.add(newlySelectedCal);
+      selectedDays.add(day);
 
-      if (selectionMode == SelectionMode.RANGE && selectedCells.size() > 1) {
-        // Select all days in between start and end.
-        Date start = selectedCells.get(0).getDate();
-        Date end = selectedCells.get(1).getDate();
-        selectedCells.get(0).setRangeState(RangeState.FIRST);
-        selectedCells.get(1).setRangeState(RangeState.LAST);
-
-        int startMonthIndex = cells.getIndexOfKey(monthKey(selectedCals.get(0)));
-        int endMonthIndex = cells.getIndexOfKey(monthKey(selectedCals.get(1)));
-        for (int monthIndex = startMonthIndex; monthIndex <= endMonthIndex; monthIndex++) {
-          List<List<MonthCellDescriptor>> month = cells.getValueAtIndex(monthIndex);
-          for (List<MonthCellDescriptor> week : month) {
-            for (MonthCellDescriptor singleCell : week) {
-              if (singleCell.getDate().after(start)
-                  && singleCell.getDate().before(end)
-                  && singleCell.isSelectable()) {
-                singleCell.setSelected(true);
-                singleCell.setRangeState(RangeState.MIDDLE);
-                selectedCells.add(singleCell);
-              }
-            }
-          }
-        }
+      if (selectionMode == SelectionMode.RANGE && selectedCals.size() > 1) {
+        // Select all days in between start and end.  Cells read the range when they're shown.
+        range.set(selectedDays.first(), selectedDays.last());
+        invalidateDays(range.getStart(), range.getEnd());
       }
     }
 
-    // Update the adapter.
-    validateAndUpdate();
+    // Update the months that changed.
+    updateChangedMonths();
     return date != null;
   }
 
-  private String monthKey(Calendar cal) {
-    return cal.get(YEAR) + "-" + cal.get(MONTH);
+  /** Index into {@link #months} of the month containing epoch day {@code day}. */
+  private int monthIndex(int day) {
+    return EpochDay.absoluteMonth(day) - firstMonth;
   }
 
-  private String monthKey(MonthDescriptor month) {
-    return month.getYear() + "-" + month.getMonth();
+  private boolean isMonthIndex(int monthIndex) {
+    return monthIndex >= 0 && monthIndex < months.size();
   }
 
-  private void clearOldSelections() {
-    for (MonthCellDescriptor selectedCell : selectedCells) {
-      // De-select the currently-selected cell.
-      selectedCell.setSelected(false);
-
-      if (dateListener != null) {
-        Date selectedDate = selectedCell.getDate();
-
-        if (selectionMode == SelectionMode.RANGE) {
-          int index = selectedCells.indexOf(selectedCell);
-          if (index == 0 || index == selectedCells.size() - 1) {
-            dateListener.onDateUnselected(selectedDate);
-          }
-        } else {
-          dateListener.onDateUnselected(selectedDate);
+  /** Unselects the selected dates that are no longer between minDate and maxDate. */
+  private void unselectOutOfRange() {
+    if (selectedDays.isEmpty()
+        || (isInRange(selectedDays.first()) && isInRange(selectedDays.last()))) {
+      return;
+    }
+    if (selectionMode == SelectionMode.RANGE) {
+      // A range can't lose one of its ends.
+      clearOldSelections();
+      return;
+    }
+    for (int i = selectedCells.size() - 1; i >= 0; i--) {
+      MonthCellDescriptor selectedCell = selectedCells.get(i);
+      if (!isInRange(selectedCell.getDay())) {
+        selectedCells.remove(i);
+        if (dateListener != null) {
+          dateListener.onDateUnselected(selectedCell.getDate());
         }
       }
     }
+    for (int i = selectedCals.size() - 1; i >= 0; i--) {
+      int day = EpochDay.of(selectedCals.get(i));
+      if (!isInRange(day)) {
+        selectedCals.remove(i);
+        selectedDays.remove(day);
+      }
+    }
+  }
+
+  private void clearOldSelections() {
+    if (!selectedDays.isEmpty()) {
+      // This covers the range, if there is one.
+      invalidateDays(selectedDays.first(), selectedDays.last());
+    }
+    if (dateListener != null) {
+      for (MonthCellDescriptor selectedCell : selectedCells) {
+        dateListener.onDateUnselected(selectedCell.getDate());
+      }
+    }
     selectedCells.clear();
     selectedCals.clear();
+    selectedDays.clear();
+    range.clear();
   }
 
-  private Date applyMultiSelect(Date date, Calendar selectedCal) {
-    for (MonthCellDescriptor selectedCell : selectedCells) {
-      if (selectedCell.getDate().equals(date)) {
-        // De-select the currently-selected cell.
-        selectedCell.setSelected(false);
-        selectedCells.remove(selectedCell);
-        date = null;
+  private Date applyMultiSelect(Date date, int day) {
+    if (!selectedDays.remove(day)) {
+      return date;
+    }
+    for (int i = 0; i < selectedCells.size(); i++) {
+      MonthCellDescriptor selectedCell = selectedCells.get(i);
+      if (selectedCell.getDay() == day) {
+        selectedCells.remove(i);
         break;
       }
     }
-    for (Calendar cal : selectedCals) {
-      if (sameDate(cal, selectedCal)) {
-        selectedCals.remove(cal);
+    for (int i = 0; i < selectedCals.size(); i++) {
+      if (EpochDay.of(selectedCals.get(i)) == day) {
+        selectedCals.remove(i);
         break;
       }
     }
-    return date;
+    return null;
   }
 
   public void highlightDates(Collection<Date> dates) {
     for (Date date : dates) {
       validateDate(date);
 
-      MonthCellWithMonthIndex monthCellWithMonthIndex = getMonthCellWithIndexByDate(date);
-      if (monthCellWithMonthIndex != null) {
-        Calendar newlyHighlightedCal = Calendar.getInstance(timeZone, locale);
-        newlyHighlightedCal.setTime(date);
-        MonthCellDescriptor cell = monthCellWithMonthIndex.cell;
-
-        highlightedCells.add(cell);
-        highlightedCals.add(newlyHighlightedCal);
-        cell.setHighlighted(true);
+      int day = EpochDay.of(date, timeZone);
+      if (isSelectableDay(day) && highlightedDays.add(day)) {
+        invalidateDay(day);
       }
     }
 
-    validateAndUpdate();
+    updateChangedMonths();
   }
 
   public void clearSelectedDates() {
-      for (MonthCellDescriptor selectedCell : selectedCells) {
-          selectedCell.setRangeState(RangeState.NONE);
-      }
-
       clearOldSelections();
-      validateAndUpdate();
+      updateChangedMonths();
   }
 
   public void clearHighlightedDates() {
-    for (MonthCellDescriptor cal : highlightedCells) {
-      cal.setHighlighted(false);
+    if (!highlightedDays.isEmpty()) {
+      invalidateDays(highlightedDays.first(), highlightedDays.last());
     }
-    highlightedCells.clear();
-    highlightedCals.clear();
+    highlightedDays.clear();
 
-    validateAndUpdate();
+    updateChangedMonths();
   }
 
-  /** Hold a cell with a month-index. */
-  private static class MonthCellWithMonthIndex {
-    MonthCellDescriptor cell;
-    int monthIndex;
-
-    MonthCellWithMonthIndex(MonthCellDescriptor cell, int monthIndex) {
-      this.cell = cell;
-      this.monthIndex = monthIndex;
+  /**
+   * Returns whether epoch day {@code day} is in range and accepted by the filter.  This reads the
+   * day's month, so the filter doesn't run again for a month that's built until it's invalidated.
+   */
+  private boolean isSelectableDay(int day) {
+    int monthIndex = monthIndex(day);
+    if (!isMonthIndex(monthIndex)) {
+      // Out of range, or paged out in unbounded mode.
+      return isInRange(day) && isDateSelectable(EpochDay.toDate(day, timeZone));
     }
+    MonthCells monthCells = getMonthCells(monthIndex);
+    return monthCells.isSelectable(day - monthCells.getFirstDay());
   }
 
-  /** Return cell and month-index (for scrolling) for a given Date. */
-  private MonthCellWithMonthIndex getMonthCellWithIndexByDate(Date date) {
-    Calendar searchCal = Calendar.getInstance(timeZone, locale);
-    searchCal.setTime(date);
-    String monthKey = monthKey(searchCal);
-    Calendar actCal = Calendar.getInstance(timeZone, locale);
-
-    int index = cells.getIndexOfKey(monthKey);
-    List<List<MonthCellDescriptor>> monthCells = cells.get(monthKey);
-    for (List<MonthCellDescriptor> weekCells : monthCells) {
-      for (MonthCellDescriptor actCell : weekCells) {
-        actCal.setTime(actCell.getDate());
-        if (sameDate(actCal, searchCal) && actCell.isSelectable()) {
-          return new MonthCellWithMonthIndex(actCell, index);
-        }
-      }
+  /**
+   * Return the selectable cell showing a given epoch day, or null.  The month and the cell are
+   * computed directly from the day, so this doesn't search and doesn't allocate once the month is
+   * built.
+   */
+  private MonthCellDescriptor getMonthCellByDay(int day) {
+    int monthIndex = monthIndex(day);
+    if (!isMonthIndex(monthIndex)) {
+      return null;
     }
-    return null;
+    MonthCells monthCells = getMonthCells(monthIndex);
+    int cell = day - monthCells.getFirstDay();
+    if (cell < 0 || cell >= monthCells.size() || !monthCells.isSelectable(cell)) {
+      return null;
+    }
+    return monthCells.getCell(cell);
   }
 
   private class MonthAdapter extends BaseAdapter {
-    private final LayoutInflater inflater;
-
-    private MonthAdapter() {
-      inflater = LayoutInflater.from(getContext());
-    }
-
     @Override public boolean isEnabled(int position) {
       // Disable selectability: each cell will handle that itself.
       return false;
@@ -903,129 +1251,540 @@ public class CalendarPickerView extends ListView {
     }
 
     @Override public View getView(int position, View convertView, ViewGroup parent) {
-      MonthView monthView = (MonthView) convertView;
-      if (monthView == null //
-          || !monthView.getTag(R.id.day_view_adapter_class).equals(dayViewAdapter.getClass())) {
-        monthView =
-            MonthView.create(parent, inflater, weekdayNameFormat, listener, today, dividerColor,
-                dayBackgroundResId, dayTextColorResId, titleTextStyle, displayHeader,
-                headerTextColor, displayDayNamesHeaderRow, displayAlwaysDigitNumbers,
-                decorators, locale, dayViewAdapter);
-        monthView.setTag(R.id.day_view_adapter_class, dayViewAdapter.getClass());
-      } else {
-        monthView.setDecorators(decorators);
-      }
-      if (monthsReverseOrder) {
-        position = months.size() - position - 1;
+      View monthView = convertView;
+      if (monthView == null || !isReusable(monthView)) {
+        monthView = newMonthView(parent);
       }
-      monthView.init(months.get(position), cells.getValueAtIndex(position), displayOnly,
-          titleTypeface, dateTypeface);
+      bindMonthView(monthView, position);
       return monthView;
     }
   }
 
-  List<List<MonthCellDescriptor>> getMonthCells(MonthDescriptor month, Calendar startCal) {
-    Calendar cal = Calendar.getInstance(timeZone, locale);
-    cal.setTime(startCal.getTime());
-    List<List<MonthCellDescriptor>> cells = new ArrayList<>();
-    cal.set(DAY_OF_MONTH, 1);
-    int firstDayOfWeek = cal.get(DAY_OF_WEEK);
-    int offset = cal.getFirstDayOfWeek() - firstDayOfWeek;
-    if (offset > 0) {
-      offset -= 7;
-    }
-    cal.add(Calendar.DATE, offset);
-
-    Calendar minSelectedCal = minDate(selectedCals);
-    Calendar maxSelectedCal = maxDate(selectedCals);
-
-    while ((cal.get(MONTH) < month.getMonth() + 1 || cal.get(YEAR) < month.getYear()) //
-        && cal.get(YEAR) <= month.getYear()) {
-      Logr.d("Building week row starting at %s", cal.getTime());
-      List<MonthCellDescriptor> weekCells = new ArrayList<>();
-      cells.add(weekCells);
-      for (int c = 0; c < 7; c++) {
-        Date date = cal.getTime();
-        @SuppressWarnings("MagicConstant")
-        boolean isCurrentMonth = cal.get(MONTH) == month.getMonth();
-        boolean isSelected = isCurrentMonth && containsDate(selectedCals, cal);
-        boolean isSelectable =
-            isCurrentMonth && betweenDates(cal, minCal, maxCal) && isDateSelectable(date);
-        boolean isToday = sameDate(cal, today);
-        boolean isHighlighted = containsDate(highlightedCals, cal);
-        int value = cal.get(DAY_OF_MONTH);
-
-        RangeState rangeState = RangeState.NONE;
-        if (selectedCals.size() > 1) {
-          if (sameDate(minSelectedCal, cal)) {
-            rangeState = RangeState.FIRST;
-          } else if (sameDate(maxDate(selectedCals), cal)) {
-            rangeState = RangeState.LAST;
-          } else if (betweenDates(cal, minSelectedCal, maxSelectedCal)) {
-            rangeState = RangeState.MIDDLE;
-          }
+  /** Returns whether {@code view}, made by {@link #newMonthView}, can show months now. */
+  private boolean isReusable(View view) {
+    if (canvasMonths) {
+      return view instanceof CanvasMonthView;
+    }
+    return view instanceof MonthView
+        && view.getTag(R.id.day_view_adapter_class).equals(dayViewAdapter.getClass());
+  }
+
+  /** Returns a view to show months in, as {@link #setCanvasMonths} says. */
+  View newMonthView(ViewGroup parent) {
+    if (canvasMonths) {
+      return new CanvasMonthView(getContext(), weekdayNameFormat, fullDateFormat, listener, today,
+          dividerColor, dayBackgroundResId, dayTextColorResId, titleTextStyle, displayHeader,
+          headerTextColor, displayDayNamesHeaderRow, displayAlwaysDigitNumbers, locale);
+    }
+    return createMonthView(parent);
+  }
+
+  MonthView createMonthView(ViewGroup parent) {
+    Object key = null;
+    if (monthViewPool != null) {
+      key = monthViewKey();
+      MonthView monthView = monthViewPool.acquire(key);
+      if (monthView != null) {
+        monthView.setListener(listener);
+        return monthView;
+      }
+    }
+    return inflateMonthView(parent, key);
+  }
+
+  /** Creates a month view to be given to pickers with {@code key}, or to this one if it's null. */
+  private MonthView inflateMonthView(ViewGroup parent, Object key) {
+    MonthView monthView =
+        MonthView.create(parent, inflater, weekdayNameFormat, listener, today, dividerColor,
+            dayBackgroundResId, dayTextColorResId, titleTextStyle, displayHeader, headerTextColor,
+            displayDayNamesHeaderRow, displayAlwaysDigitNumbers, decorators, locale,
+            dayViewAdapter);
+    monthView.setTag(R.id.day_view_adapter_class, dayViewAdapter.getClass());
+    monthView.setTag(R.id.month_view_pool_key, key);
+    return monthView;
+  }
+
+  /**
+   * Returns what a month view {@link MonthView#create created} now would depend on, so views are
+   * only shared by pickers that would create the same ones.
+   */
+  private Object monthViewKey() {
+    return Arrays.asList(getContext(), dayViewAdapter.getClass(), weekdayNameFormat,
+        today.getFirstDayOfWeek(), locale, dividerColor, dayBackgroundResId, dayTextColorResId,
+        titleTextStyle, displayHeader, headerTextColor, displayDayNamesHeaderRow,
+        displayAlwaysDigitNumbers);
+  }
+
+  /** Binds {@code view}, made by {@link #newMonthView}, to the month at {@code position}. */
+  void bindMonthView(View view, int position) {
+    if (monthsReverseOrder) {
+      position = months.size() - position - 1;
+    }
+    pageMonthsNear(position);
+    requestAvailability(position);
+    MonthDescriptor month = months.get(position);
+    if (month.getLabel() == null) {
+      month.setLabel(formatMonthLabel(month));
+    }
+    MonthCells monthCells = getMonthCells(position);
+    if (view instanceof CanvasMonthView) {
+      ((CanvasMonthView) view).init(month, monthCells, displayOnly, titleTypeface, dateTypeface);
+      return;
+    }
+    MonthView monthView = (MonthView) view;
+    monthView.setDecorators(decorators);
+    monthView.setMonthDecorators(monthDecorators);
+    monthView.setMeasureCache(measureCache);
+    monthView.init(month, monthCells, displayOnly, titleTypeface, dateTypeface);
+  }
+
+  /**
+   * Shows the latest cells in {@code view}, which {@link #bindMonthView} already bound to the month
+   * at {@code position}.
+   */
+  void bindMonthCells(View view, int position) {
+    if (monthsReverseOrder) {
+      position = months.size() - position - 1;
+    }
+    MonthCells monthCells = getMonthCells(position);
+    if (view instanceof CanvasMonthView) {
+      ((CanvasMonthView) view).setCells(monthCells, displayOnly);
+    } else {
+      ((MonthView) view).setCells(monthCells, displayOnly);
+    }
+  }
+
+  /** Returns the absolute month at list position {@code position}, which stays with the month. */
+  long getMonthId(int position) {
+    return firstMonth + (monthsReverseOrder ? months.size() - 1 - position : position);
+  }
+
+  int getMonthViewType() {
+    return monthViewType;
+  }
+
+  void setHost(Host host) {
+    this.host = host;
+  }
+
+  /**
+   * Shows the months of a picker.  The methods without documentation mean what they do for a
+   * {@link ListView}; positions are positions in the list of months.
+   */
+  interface Host {
+    boolean post(Runnable action);
+
+    int getFirstVisiblePosition();
+
+    int getLastVisiblePosition();
+
+    /** Returns the view showing the month at {@code position}, or null if it isn't shown. */
+    View findMonthView(int position);
+
+    void setSelectionFromTop(int position, int y);
+
+    void smoothScrollToPosition(int position);
+
+    /** Binds every month again: their number or order may have changed. */
+    void onMonthsChanged();
+
+    /** Binds the months from {@code first} to {@code last} again: only their cells changed. */
+    void onMonthsUpdated(int first, int last);
+  }
+
+  /**
+   * The dates of a range with every day selectable, created as they're asked for.  The list is
+   * copied on its first change, so it can be changed like any other list of selected dates.
+   */
+  private static final class RangeDates extends AbstractList<Date> {
+    private final int start;
+    private final int size;
+    private final TimeZone timeZone;
+    private List<Date> copy;
+
+    RangeDates(int start, int size, TimeZone timeZone) {
+      this.start = start;
+      this.size = size;
+      this.timeZone = timeZone;
+    }
+
+    @Override public Date get(int index) {
+      if (copy != null) {
+        return copy.get(index);
+      }
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Date " + index + " of " + size);
+      }
+      return EpochDay.toDate(start + index, timeZone);
+    }
+
+    @Override public int size() {
+      return copy != null ? copy.size() : size;
+    }
+
+    @Override public Date set(int index, Date date) {
+      return copy().set(index, date);
+    }
+
+    @Override public void add(int index, Date date) {
+      copy().add(index, date);
+      modCount++;
+    }
+
+    @Override public Date remove(int index) {
+      Date removed = copy().remove(index);
+      modCount++;
+      return removed;
+    }
+
+    private List<Date> copy() {
+      if (copy == null) {
+        List<Date> dates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          dates.add(EpochDay.toDate(start + i, timeZone));
         }
+        copy = dates;
+      }
+      return copy;
+    }
+  }
+
+  /** Shows the months in this list. */
+  private final class ListHost implements Host {
+    @Override public boolean post(Runnable action) {
+      return CalendarPickerView.this.post(action);
+    }
+
+    @Override public int getFirstVisiblePosition() {
+      return CalendarPickerView.this.getFirstVisiblePosition();
+    }
+
+    @Override public int getLastVisiblePosition() {
+      return CalendarPickerView.this.getLastVisiblePosition();
+    }
+
+    @Override public View findMonthView(int position) {
+      int child = position - getFirstVisiblePosition();
+      return child >= 0 && child < getChildCount() ? getChildAt(child) : null;
+    }
+
+    @Override public void setSelectionFromTop(int position, int y) {
+      CalendarPickerView.this.setSelectionFromTop(position, y);
+    }
+
+    @Override public void smoothScrollToPosition(int position) {
+      CalendarPickerView.this.smoothScrollToPosition(position);
+    }
+
+    @Override public void onMonthsChanged() {
+      if (getAdapter() == null) {
+        setAdapter(adapter);
+      }
+      adapter.notifyDataSetChanged();
+    }
 
-        weekCells.add(
-            new MonthCellDescriptor(date, isCurrentMonth, isSelectable, isSelected, isToday,
-                isHighlighted, value, rangeState));
-        cal.add(DATE, 1);
+    @Override public void onMonthsUpdated(int first, int last) {
+      if (getAdapter() == null) {
+        onMonthsChanged();
+        return;
+      }
+      // Months that aren't shown are bound when they are.
+      int firstShown = getFirstVisiblePosition();
+      int lastShown = Math.min(last, firstShown + getChildCount() - 1);
+      for (int position = Math.max(first, firstShown); position <= lastShown; position++) {
+        View view = getChildAt(position - firstShown);
+        if (adapter.getView(position, view, CalendarPickerView.this) != view) {
+          adapter.notifyDataSetChanged();
+          return;
+        }
       }
     }
+  }
+
+  /**
+   * The months between {@link #minCal} and {@link #maxCal}.  Each {@link MonthDescriptor} is only
+   * created when first requested; its label is formatted when the month is first displayed.
+   */
+  class MonthList extends AbstractList<MonthDescriptor> {
+    private final SparseArray<MonthDescriptor> built = new SparseArray<>();
+    private int size;
+
+    void reset(int size) {
+      built.clear();
+      this.size = size;
+      modCount++;
+    }
+
+    /** Makes the month at {@code offset} the first one, keeping the months already built. */
+    void shift(int offset, int size) {
+      shiftKeys(built, offset, size);
+      this.size = size;
+      modCount++;
+    }
+
+    @Override public MonthDescriptor get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Month " + index + " of " + size);
+      }
+      MonthDescriptor month = built.get(index);
+      if (month == null) {
+        int absoluteMonth = firstMonth + index;
+        Date date = EpochDay.toDate(EpochDay.firstDayOfMonth(absoluteMonth), timeZone);
+        month = new MonthDescriptor(EpochDay.month(absoluteMonth), EpochDay.year(absoluteMonth),
+            date, null);
+        built.put(index, month);
+      }
+      return month;
+    }
+
+    @Override public int size() {
+      return size;
+    }
+  }
+
+  /** Returns the cells of the month at {@code monthIndex}, building them on first use. */
+  MonthCells getMonthCells(int monthIndex) {
+    MonthCells monthCells = cells.get(monthIndex);
+    if (monthCells == null) {
+      monthCells = getMonthCells(months.get(monthIndex));
+      putMonthCells(monthIndex, monthCells);
+    }
+    return monthCells;
+  }
+
+  private void putMonthCells(int monthIndex, MonthCells monthCells) {
+    if (availabilityProvider != null) {
+      monthCells.setAvailabilityPending();
+    }
+    cells.put(monthIndex, monthCells);
+  }
+
+  MonthCells getMonthCells(MonthDescriptor month) {
+    MonthTemplate template =
+        MonthTemplate.get(month.getYear() * 12 + month.getMonth(), firstDayOfWeek);
+    state.today = EpochDay.of(today);
+    return buildMonthCells(template, state, minDay, maxDay, dateConfiguredListener);
+  }
+
+  /**
+   * Builds the cells of a month whose selectable dates are those between {@code minDay} and
+   * {@code maxDay} that {@code filter} accepts.  This only reads its arguments, so it can run off
+   * the main thread.
+   */
+  static MonthCells buildMonthCells(MonthTemplate template, PickerState state, int minDay,
+      int maxDay, DateSelectableFilter filter) {
+    MonthCells cells = new MonthCells(template, state);
+    updateSelectable(cells, minDay, maxDay, filter);
     return cells;
   }
 
-  private boolean containsDate(List<Calendar> selectedCals, Date date) {
-    Calendar cal = Calendar.getInstance(timeZone, locale);
-    cal.setTime(date);
-    return containsDate(selectedCals, cal);
+  /**
+   * Sets which cells of a month are selectable, running the filter for the month's days in range.
+   * A {@link BatchDateSelectableFilter} is run once for all of them.  See {@link #buildMonthCells}.
+   */
+  static void updateSelectable(MonthCells cells, int minDay, int maxDay,
+      DateSelectableFilter filter) {
+    // The days of the month that are in range are consecutive cells.
+    int first = -1;
+    int last = -2;
+    for (int index = 0; index < cells.size(); index++) {
+      int day = cells.getDay(index);
+      if (cells.isCurrentMonth(index) && day >= minDay && day <= maxDay) {
+        if (first < 0) {
+          first = index;
+        }
+        last = index;
+      }
+    }
+    BitSet accepted = null;
+    if (first >= 0 && filter instanceof BatchDateSelectableFilter) {
+      accepted = ((BatchDateSelectableFilter) filter).getSelectableDates(cells.getDate(first),
+          last - first + 1);
+    }
+    for (int index = 0; index < cells.size(); index++) {
+      boolean selectable = index >= first && index <= last;
+      if (selectable && filter != null) {
+        // Only create a Date for the filter if there is one.
+        selectable = accepted != null ? accepted.get(index - first)
+            : filter.isDateSelectable(cells.getDate(index));
+      }
+      cells.setSelectable(index, selectable);
+    }
+  }
+
+  void cancelMonthCellsLoader() {
+    if (monthCellsLoader != null) {
+      monthCellsLoader.cancelled = true;
+      monthCellsLoader = null;
+    }
   }
 
-  private static boolean containsDate(List<Calendar> selectedCals, Calendar cal) {
-    for (Calendar selectedCal : selectedCals) {
-      if (sameDate(cal, selectedCal)) {
-        return true;
+  /**
+   * Builds the cells of every month not built yet on {@link #monthCellsExecutor}, nearest to
+   * {@link #anchor} first, and hands each month to the main thread as soon as it's built.  Months
+   * the list needs before they arrive are built on the main thread as usual; the loader's copy is
+   * then dropped.
+   */
+  private final class MonthCellsLoader implements Runnable {
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    // Copies of what the months are built from, as init() may change the fields meanwhile.
+    private final int firstMonth = CalendarPickerView.this.firstMonth;
+    private final int firstDayOfWeek = CalendarPickerView.this.firstDayOfWeek;
+    private final int minDay = CalendarPickerView.this.minDay;
+    private final int maxDay = CalendarPickerView.this.maxDay;
+    private final DateSelectableFilter filter = dateConfiguredListener;
+    /** Only touched by the loader's thread once it runs. */
+    private final boolean[] built = new boolean[months.size()];
+    private int remaining = built.length;
+    /** Index of the month the picker shows; set when it scrolls to a selected date. */
+    volatile int anchor;
+    volatile boolean cancelled;
+
+    MonthCellsLoader(int anchor) {
+      this.anchor = anchor;
+      for (int i = 0; i < cells.size(); i++) {
+        built[cells.keyAt(i)] = true;
+        remaining--;
       }
     }
-    return false;
+
+    @Override public void run() {
+      int from = -1;
+      int step = 0;
+      while (remaining > 0 && !cancelled) {
+        if (anchor != from) {
+          from = anchor;
+          step = 0;
+        }
+        // from, from - 1, from + 1, from - 2...
+        int index = from + (step % 2 == 0 ? step / 2 : -(step + 1) / 2);
+        step++;
+        if (index < 0 || index >= built.length || built[index]) {
+          continue;
+        }
+        built[index] = true;
+        remaining--;
+        publish(index, buildMonthCells(MonthTemplate.get(firstMonth + index, firstDayOfWeek),
+            state, minDay, maxDay, filter));
+      }
+    }
+
+    private void publish(final int monthIndex, final MonthCells monthCells) {
+      handler.post(new Runnable() {
+        @Override public void run() {
+          // Positions don't change as months arrive, so the list only needs them once it asks.
+          if (monthCellsLoader == MonthCellsLoader.this && cells.get(monthIndex) == null) {
+            putMonthCells(monthIndex, monthCells);
+          }
+        }
+      });
+    }
   }
 
-  private static Calendar minDate(List<Calendar> selectedCals) {
-    if (selectedCals == null || selectedCals.size() == 0) {
-      return null;
+  /**
+   * Loads the availability of the month at {@code monthIndex}, which is being shown, and of the
+   * months near the ones shown, unless it's known or being loaded.  Loads for months that have
+   * scrolled further away are cancelled.
+   */
+  private void requestAvailability(int monthIndex) {
+    if (availabilityProvider == null) {
+      return;
+    }
+    int firstShown = firstVisibleMonthIndex();
+    int lastPosition = host.getLastVisiblePosition();
+    int lastShown = monthsReverseOrder ? months.size() - 1 - lastPosition : lastPosition;
+    // What the list says it shows is out of date while it lays out after a jump, so it's only
+    // trusted near the month being bound.
+    int first = Math.max(Math.min(monthIndex, Math.min(firstShown, lastShown)),
+        monthIndex - 2 * AVAILABILITY_PREFETCH);
+    int last = Math.min(Math.max(monthIndex, Math.max(firstShown, lastShown)),
+        monthIndex + 2 * AVAILABILITY_PREFETCH);
+    first = Math.max(first - AVAILABILITY_PREFETCH, 0);
+    last = Math.min(last + AVAILABILITY_PREFETCH, months.size() - 1);
+
+    for (int i = availabilityRequests.size() - 1; i >= 0; i--) {
+      int requested = availabilityRequests.keyAt(i) - firstMonth;
+      if (requested < first || requested > last) {
+        availabilityRequests.valueAt(i).cancelled = true;
+        availabilityRequests.removeAt(i);
+      }
+    }
+    for (int index = first; index <= last; index++) {
+      int absoluteMonth = firstMonth + index;
+      if (getMonthCells(index).isAvailabilityPending()
+          && availabilityRequests.get(absoluteMonth) == null) {
+        AvailabilityRequest request = new AvailabilityRequest(absoluteMonth);
+        availabilityRequests.put(absoluteMonth, request);
+        availabilityExecutor.execute(request);
+      }
     }
-    Collections.sort(selectedCals);
-    return selectedCals.get(0);
   }
 
-  private static Calendar maxDate(List<Calendar> selectedCals) {
-    if (selectedCals == null || selectedCals.size() == 0) {
-      return null;
+  private void cancelAvailabilityRequests() {
+    for (int i = 0; i < availabilityRequests.size(); i++) {
+      availabilityRequests.valueAt(i).cancelled = true;
     }
-    Collections.sort(selectedCals);
-    return selectedCals.get(selectedCals.size() - 1);
+    availabilityRequests.clear();
   }
 
-  private static boolean sameDate(Calendar cal, Calendar selectedDate) {
-    return cal.get(MONTH) == selectedDate.get(MONTH)
-        && cal.get(YEAR) == selectedDate.get(YEAR)
-        && cal.get(DAY_OF_MONTH) == selectedDate.get(DAY_OF_MONTH);
+  /** Applies the availability of a month, if it's still shown, and binds that month again. */
+  void onAvailabilityLoaded(int absoluteMonth, BitSet available) {
+    int monthIndex = absoluteMonth - firstMonth;
+    MonthCells monthCells = isMonthIndex(monthIndex) ? cells.get(monthIndex) : null;
+    if (monthCells == null) {
+      return;
+    }
+    // Bit i of available is day i of the month.
+    int offset = EpochDay.firstDayOfMonth(absoluteMonth) - monthCells.getFirstDay();
+    long mask = 0;
+    for (int i = available.nextSetBit(0); i >= 0 && offset + i < monthCells.size();
+        i = available.nextSetBit(i + 1)) {
+      mask |= 1L << (offset + i);
+    }
+    monthCells.setAvailable(mask);
+    rebindMonth(monthIndex);
   }
 
-  private static boolean betweenDates(Calendar cal, Calendar minCal, Calendar maxCal) {
-    final Date date = cal.getTime();
-    return betweenDates(date, minCal, maxCal);
+  /** Binds the month at {@code monthIndex} again, leaving the other months alone. */
+  private void rebindMonth(int monthIndex) {
+    firstChangedMonth = Math.min(firstChangedMonth, monthIndex);
+    lastChangedMonth = Math.max(lastChangedMonth, monthIndex);
+    updateChangedMonths();
   }
 
-  static boolean betweenDates(Date date, Calendar minCal, Calendar maxCal) {
-    final Date min = minCal.getTime();
-    return (date.equals(min) || date.after(min)) // >= minCal
-        && date.before(maxCal.getTime()); // && < maxCal
+  /** Loads the availability of one month on {@link #availabilityExecutor}. */
+  private final class AvailabilityRequest implements Runnable {
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final AvailabilityProvider provider = availabilityProvider;
+    private final int absoluteMonth;
+    private final Date start;
+    private final int count;
+    volatile boolean cancelled;
+
+    AvailabilityRequest(int absoluteMonth) {
+      this.absoluteMonth = absoluteMonth;
+      start = EpochDay.toDate(EpochDay.firstDayOfMonth(absoluteMonth), timeZone);
+      count = EpochDay.daysInMonth(absoluteMonth);
+    }
+
+    @Override public void run() {
+      if (cancelled) {
+        return;
+      }
+      final BitSet available = provider.getAvailableDates(start, count);
+      handler.post(new Runnable() {
+        @Override public void run() {
+          if (availabilityRequests.get(absoluteMonth) == AvailabilityRequest.this) {
+            availabilityRequests.remove(absoluteMonth);
+            onAvailabilityLoaded(absoluteMonth, available);
+          }
+        }
+      });
+    }
   }
 
-  @SuppressWarnings("MagicConstant")
-  private static boolean sameMonth(Calendar cal, MonthDescriptor month) {
-    return (cal.get(MONTH) == month.getMonth() && cal.get(YEAR) == month.getYear());
+  private boolean isInRange(int day) {
+    return day >= minDay && day <= maxDay;
   }
 
   private boolean isDateSelectable(Date date) {
@@ -1047,13 +1806,141 @@ public class CalendarPickerView extends ListView {
 
   /**
    * Set a listener used to discriminate between selectable and unselectable dates. Set this to
-   * disable arbitrary dates as they are rendered.
+   * disable arbitrary dates as they are rendered.  The filter is run once per month and its
+   * answers are kept; call {@link #invalidateSelectableDates()} when they change.  Implement
+   * {@link BatchDateSelectableFilter} to answer for a month at a time.
    * <p>
-   * Important: set this before you call {@link #init(Date, Date)} methods.  If called afterwards,
-   * it will not be consistently applied.
+   * If called after {@link #init(Date, Date)}, the months built so far are filtered again.
    */
   public void setDateSelectableFilter(DateSelectableFilter listener) {
     dateConfiguredListener = listener;
+    invalidateSelectableDates();
+  }
+
+  /**
+   * Runs the {@link DateSelectableFilter} again for every month, for when the dates it accepts
+   * have changed.  Dates that are already selected stay selected.
+   */
+  public void invalidateSelectableDates() {
+    if (months.isEmpty()) {
+      return;
+    }
+    for (int i = 0; i < cells.size(); i++) {
+      updateSelectable(cells.valueAt(i), minDay, maxDay, dateConfiguredListener);
+    }
+    // Months the loader built with the old answers are dropped, and built again.
+    buildMonths(firstVisibleMonthIndex());
+    updateMonths();
+  }
+
+  /**
+   * Set a provider of the dates that are available, for when they can't be known right away.  A
+   * month's availability is loaded on {@code executor} when the month is shown or nearly shown;
+   * until it arrives, the month's otherwise selectable dates are shown as pending (see
+   * {@link MonthCellDescriptor#isPending()}) and can't be clicked.  Only the month is bound again
+   * when it arrives, and loads for months that are scrolled away from are cancelled.  Dates that
+   * aren't available can't be selected, just like those the {@link DateSelectableFilter} rejects.
+   * <p>
+   * Pending dates can still be selected with {@link #selectDate(Date)}.  Set a null provider to
+   * make every date available again.  Setting a provider loads availability again.
+   */
+  public void setAvailabilityProvider(AvailabilityProvider provider, Executor executor) {
+    if (provider != null && executor == null) {
+      throw new IllegalArgumentException("An availability provider needs an executor.");
+    }
+    availabilityProvider = provider;
+    availabilityExecutor = executor;
+    cancelAvailabilityRequests();
+    for (int i = 0; i < cells.size(); i++) {
+      if (provider != null) {
+        cells.valueAt(i).setAvailabilityPending();
+      } else {
+        cells.valueAt(i).setAvailable(-1L);
+      }
+    }
+    updateMonths();
+  }
+
+  /**
+   * Build the cells of each month only when the month is first displayed, selected or highlighted
+   * instead of building every month in {@link #init(Date, Date)}.  This keeps {@code init()} fast
+   * no matter how long the date range is.  The {@link DateSelectableFilter} will be consulted for
+   * a month's dates when that month is built.
+   * <p>
+   * Important: set this before you call {@link #init(Date, Date)} methods.  If called afterwards,
+   * it will not be consistently applied.
+   */
+  public void setLazyMonthCells(boolean lazyMonthCells) {
+    this.lazyMonthCells = lazyMonthCells;
+  }
+
+  /**
+   * Build the cells of each month on {@code executor} instead of in {@link #init(Date, Date)}, so
+   * {@code init()} returns without building any month.  Months are built starting with the one
+   * shown first (the selected or current month) and working outwards, and are handed to the list
+   * as they complete; a month the list shows before then is built on the main thread.  Pass null
+   * to build months on the main thread again.
+   * <p>
+   * The {@link DateSelectableFilter} is consulted on the executor's threads, so it must be safe
+   * to call from them.
+   * <p>
+   * Important: set this before you call {@link #init(Date, Date)} methods.  If called afterwards,
+   * it will not be consistently applied.
+   */
+  public void setMonthCellsExecutor(Executor executor) {
+    monthCellsExecutor = executor;
+  }
+
+  /**
+   * Draw each month with a single view instead of a {@link MonthView} of about 60 views, which
+   * makes months much cheaper to measure, lay out and draw as they're scrolled.  Months look the
+   * same and cells are clicked and read out by accessibility services as before, but there are no
+   * cell views: {@link #setCustomDayView custom day views}, {@link #setDecorators cell decorators}
+   * and {@link #setMonthDecorators month decorators} aren't used, and month views aren't pooled.
+   * <p>
+   * Important: set this before you call {@link #init(Date, Date)} methods.  If called afterwards,
+   * it will not be consistently applied.
+   */
+  public void setCanvasMonths(boolean canvasMonths) {
+    if (this.canvasMonths != canvasMonths) {
+      this.canvasMonths = canvasMonths;
+      monthViewType++;
+      host.onMonthsChanged();
+    }
+  }
+
+  /**
+   * Give months a fixed geometry: each week is exactly as tall as a day is wide, and the day names
+   * header is measured once for all of them, so months are laid out without measuring their cells
+   * again as they're scrolled.  Custom day views taller than they're wide are cut off.
+   */
+  public void setFixedMonthGeometry(boolean fixedMonthGeometry) {
+    if (fixedMonthGeometry != (measureCache != null)) {
+      measureCache = fixedMonthGeometry ? new CalendarGridView.MeasureCache() : null;
+      updateMonths();
+    }
+  }
+
+  /**
+   * Shares month views with other pickers through {@code pool}: this picker's views are put in
+   * the pool when it's detached from its window, and views are taken from it before new ones are
+   * inflated.  Pass null to stop using a pool.
+   */
+  public void setMonthViewPool(MonthViewPool pool) {
+    monthViewPool = pool;
+  }
+
+  boolean hasMonthViewPool() {
+    return monthViewPool != null;
+  }
+
+  /** Puts the month views among {@code views}, which have no parent, in the month view pool. */
+  void releaseMonthViews(List<View> views) {
+    for (View view : views) {
+      if (view instanceof MonthView) {
+        monthViewPool.release((MonthView) view);
+      }
+    }
   }
 
   /**
@@ -1064,9 +1951,8 @@ public class CalendarPickerView extends ListView {
    */
   public void setCustomDayView(DayViewAdapter dayViewAdapter) {
     this.dayViewAdapter = dayViewAdapter;
-    if (null != adapter) {
-      adapter.notifyDataSetChanged();
-    }
+    monthViewType++;
+    host.onMonthsChanged();
   }
 
   /** Set a listener to intercept clicks on calendar cells. */
@@ -1108,6 +1994,37 @@ public class CalendarPickerView extends ListView {
     boolean isDateSelectable(Date date);
   }
 
+  /**
+   * A {@link DateSelectableFilter} that can answer for many consecutive dates at once.  The picker
+   * asks for the dates in range of a month when it builds the month, instead of asking for each
+   * date.
+   *
+   * @see #setDateSelectableFilter(DateSelectableFilter)
+   */
+  public interface BatchDateSelectableFilter extends DateSelectableFilter {
+    /**
+     * Returns a set whose bit {@code i} is set if the date {@code i} days after {@code start} is
+     * selectable, for {@code i} from 0 to {@code count - 1}.  {@code start} is midnight in the
+     * picker's time zone.
+     */
+    BitSet getSelectableDates(Date start, int count);
+  }
+
+  /**
+   * Interface used to load which dates are available when that takes too long for the main
+   * thread.
+   *
+   * @see #setAvailabilityProvider(AvailabilityProvider, Executor)
+   */
+  public interface AvailabilityProvider {
+    /**
+     * Returns a set whose bit {@code i} is set if the date {@code i} days after {@code start} is
+     * available, for {@code i} from 0 to {@code count - 1}.  {@code start} is the first of a
+     * month at midnight in the picker's time zone.  Called on the provider's executor.
+     */
+    BitSet getAvailableDates(Date start, int count);
+  }
+
   /**
    * Interface to be notified when a cell is clicked and possibly intercept the click.  Return true
    * to intercept the click and prevent any selections from changing.
@@ -0,0 +1,348 @@
+package com.squareup.timessquare;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Typeface;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import com.squareup.timessquare.CalendarPickerView.AvailabilityProvider;
+import com.squareup.timessquare.CalendarPickerView.CellClickInterceptor;
+import com.squareup.timessquare.CalendarPickerView.DateSelectableFilter;
+import com.squareup.timessquare.CalendarPickerView.FluentInitializer;
+import com.squareup.timessquare.CalendarPickerView.OnDateSelectedListener;
+import com.squareup.timessquare.CalendarPickerView.OnInvalidDateSelectedListener;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link CalendarPickerView} shown in a {@link RecyclerView}: it is initialized with the same
+ * {@link FluentInitializer}, draws the same {@link MonthView}s and takes the same attributes.
+ * <p>
+ * Each month has a stable id, so month views stay with their months when months are paged in
+ * and out.  A change to the selection or the highlighted dates is sent as a change payload for
+ * the months it touched only, which binds their views in place instead of cross-fading them.
+ * The next month is created and bound ahead of time in the frames left over while scrolling.
+ */
+public class CalendarRecyclerView extends RecyclerView {
+  /** Payload of changes that leave a month in place: only its cells changed. */
+  static final Object PAYLOAD_CELLS = new Object();
+
+  /** Picks the dates; never attached to a window itself. */
+  final CalendarPickerView picker;
+  private final LinearLayoutManager layoutManager;
+  private final MonthAdapter adapter = new MonthAdapter();
+  /** Where months were scrolled to when their views were given to the pool. */
+  private int detachedPosition;
+  private int detachedOffset;
+
+  public CalendarRecyclerView(Context context, AttributeSet attrs) {
+    super(context, attrs);
+    TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.CalendarPickerView);
+    setBackgroundColor(a.getColor(R.styleable.CalendarPickerView_android_background,
+        getResources().getColor(R.color.calendar_bg)));
+    a.recycle();
+
+    picker = new CalendarPickerView(context, attrs);
+    picker.setHost(new RecyclerHost());
+    layoutManager = new LinearLayoutManager(context);
+    setLayoutManager(layoutManager);
+    setAdapter(adapter);
+  }
+
+  /** @see CalendarPickerView#init(Date, Date) */
+  public FluentInitializer init(Date minDate, Date maxDate) {
+    return picker.init(minDate, maxDate);
+  }
+
+  /** @see CalendarPickerView#init(Date, Date, TimeZone) */
+  public FluentInitializer init(Date minDate, Date maxDate, TimeZone timeZone) {
+    return picker.init(minDate, maxDate, timeZone);
+  }
+
+  /** @see CalendarPickerView#init(Date, Date, Locale) */
+  public FluentInitializer init(Date minDate, Date maxDate, Locale locale) {
+    return picker.init(minDate, maxDate, locale);
+  }
+
+  /** @see CalendarPickerView#init(Date, Date, TimeZone, Locale) */
+  public FluentInitializer init(Date minDate, Date maxDate, TimeZone timeZone, Locale locale) {
+    return picker.init(minDate, maxDate, timeZone, locale);
+  }
+
+  /** @see CalendarPickerView#initUnbounded(Date, TimeZone, Locale) */
+  public FluentInitializer initUnbounded(Date date, TimeZone timeZone, Locale locale) {
+    return picker.initUnbounded(date, timeZone, locale);
+  }
+
+  /** @see CalendarPickerView#setDateRange(Date, Date) */
+  public void setDateRange(Date minDate, Date maxDate) {
+    picker.setDateRange(minDate, maxDate);
+  }
+
+  public boolean selectDate(Date date) {
+    return picker.selectDate(date);
+  }
+
+  public boolean selectDate(Date date, boolean smoothScroll) {
+    return picker.selectDate(date, smoothScroll);
+  }
+
+  public boolean scrollToDate(Date date) {
+    return picker.scrollToDate(date);
+  }
+
+  public Date getSelectedDate() {
+    return picker.getSelectedDate();
+  }
+
+  /** @see CalendarPickerView#getSelectedDates() */
+  public List<Date> getSelectedDates() {
+    return picker.getSelectedDates();
+  }
+
+  public void clearSelectedDates() {
+    picker.clearSelectedDates();
+  }
+
+  public void highlightDates(Collection<Date> dates) {
+    picker.highlightDates(dates);
+  }
+
+  public void clearHighlightedDates() {
+    picker.clearHighlightedDates();
+  }
+
+  public void setOnDateSelectedListener(OnDateSelectedListener listener) {
+    picker.setOnDateSelectedListener(listener);
+  }
+
+  public void setOnInvalidDateSelectedListener(OnInvalidDateSelectedListener listener) {
+    picker.setOnInvalidDateSelectedListener(listener);
+  }
+
+  public void setDateSelectableFilter(DateSelectableFilter listener) {
+    picker.setDateSelectableFilter(listener);
+  }
+
+  public void invalidateSelectableDates() {
+    picker.invalidateSelectableDates();
+  }
+
+  /** @see CalendarPickerView#setAvailabilityProvider(AvailabilityProvider, Executor) */
+  public void setAvailabilityProvider(AvailabilityProvider provider, Executor executor) {
+    picker.setAvailabilityProvider(provider, executor);
+  }
+
+  /** @see CalendarPickerView#setLazyMonthCells(boolean) */
+  public void setLazyMonthCells(boolean lazyMonthCells) {
+    picker.setLazyMonthCells(lazyMonthCells);
+  }
+
+  /** @see CalendarPickerView#setMonthCellsExecutor(Executor) */
+  public void setMonthCellsExecutor(Executor executor) {
+    picker.setMonthCellsExecutor(executor);
+  }
+
+  public void setCellClickInterceptor(CellClickInterceptor listener) {
+    picker.setCellClickInterceptor(listener);
+  }
+
+  public void setCustomDayView(DayViewAdapter dayViewAdapter) {
+    picker.setCustomDayView(dayViewAdapter);
+  }
+
+  public void setDecorators(List<CalendarCellDecorator> decorators) {
+    picker.setDecorators(decorators);
+  }
+
+  public List<CalendarCellDecorator> getDecorators() {
+    return picker.getDecorators();
+  }
+
+  public void setMonthDecorators(List<MonthDecorator> monthDecorators) {
+    picker.setMonthDecorators(monthDecorators);
+  }
+
+  public List<MonthDecorator> getMonthDecorators() {
+    return picker.getMonthDecorators();
+  }
+
+  public void refreshDecorations() {
+    picker.refreshDecorations();
+  }
+
+  public void setTitleTypeface(Typeface titleTypeface) {
+    picker.setTitleTypeface(titleTypeface);
+  }
+
+  public void setDateTypeface(Typeface dateTypeface) {
+    picker.setDateTypeface(dateTypeface);
+  }
+
+  public void setTypeface(Typeface typeface) {
+    picker.setTypeface(typeface);
+  }
+
+  /** @see CalendarPickerView#setMonthViewPool(MonthViewPool) */
+  public void setMonthViewPool(MonthViewPool pool) {
+    picker.setMonthViewPool(pool);
+  }
+
+  /** @see CalendarPickerView#prewarm(int) */
+  public void prewarm(int monthViews) {
+    picker.prewarm(monthViews, this);
+  }
+
+  /** @see CalendarPickerView#fixDialogDimens() */
+  public void fixDialogDimens() {
+    Logr.d("Fixing dimensions to h = %d / w = %d", getMeasuredHeight(), getMeasuredWidth());
+    // Fix the layout height/width after the dialog has been shown.
+    getLayoutParams().height = getMeasuredHeight();
+    getLayoutParams().width = getMeasuredWidth();
+    // Post this runnable so it runs _after_ the dimen changes have been applied/re-measured.
+    post(new Runnable() {
+      @Override public void run() {
+        Logr.d("Dimens are fixed: now scroll to the selected date");
+        picker.scrollToSelectedDates();
+      }
+    });
+  }
+
+  /** @see CalendarPickerView#unfixDialogDimens() */
+  public void unfixDialogDimens() {
+    Logr.d("Reset the fixed dimensions to allow for re-measurement");
+    getLayoutParams().height = LayoutParams.MATCH_PARENT;
+    getLayoutParams().width = LayoutParams.MATCH_PARENT;
+    requestLayout();
+  }
+
+  /** @see CalendarPickerView#setCanvasMonths(boolean) */
+  public void setCanvasMonths(boolean canvasMonths) {
+    picker.setCanvasMonths(canvasMonths);
+  }
+
+  /** @see CalendarPickerView#setFixedMonthGeometry(boolean) */
+  public void setFixedMonthGeometry(boolean fixedMonthGeometry) {
+    picker.setFixedMonthGeometry(fixedMonthGeometry);
+  }
+
+  @Override protected void onAttachedToWindow() {
+    super.onAttachedToWindow();
+    if (getAdapter() == null) {
+      // Month views were given to the pool when this was detached: create them again.
+      setAdapter(adapter);
+      layoutManager.scrollToPositionWithOffset(detachedPosition, detachedOffset);
+    }
+  }
+
+  @Override protected void onDetachedFromWindow() {
+    super.onDetachedFromWindow();
+    // Months that weren't built yet are built when they're shown instead.
+    picker.cancelMonthCellsLoader();
+    if (picker.hasMonthViewPool()) {
+      List<View> views = new ArrayList<>();
+      for (int i = 0; i < getChildCount(); i++) {
+        views.add(getChildAt(i));
+      }
+      detachedPosition = Math.max(layoutManager.findFirstVisibleItemPosition(), 0);
+      View first = layoutManager.findViewByPosition(detachedPosition);
+      detachedOffset = first != null ? first.getTop() - getPaddingTop() : 0;
+      // Removes the views, and drops those the recycler kept, so no view holder keeps them.
+      setAdapter(null);
+      picker.releaseMonthViews(views);
+    }
+  }
+
+  @Override protected void onMeasure(int widthSpec, int heightSpec) {
+    if (picker.months.isEmpty()) {
+      throw new IllegalStateException(
+          "Must have at least one month to display.  Did you forget to call init()?");
+    }
+    super.onMeasure(widthSpec, heightSpec);
+  }
+
+  private final class MonthAdapter extends RecyclerView.Adapter<MonthHolder> {
+    MonthAdapter() {
+      setHasStableIds(true);
+    }
+
+    @Override public int getItemCount() {
+      return picker.months.size();
+    }
+
+    @Override public long getItemId(int position) {
+      return picker.getMonthId(position);
+    }
+
+    @Override public int getItemViewType(int position) {
+      return picker.getMonthViewType();
+    }
+
+    @Override public MonthHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+      return new MonthHolder(picker.newMonthView(parent));
+    }
+
+    @Override public void onBindViewHolder(MonthHolder holder, int position) {
+      picker.bindMonthView(holder.itemView, position);
+    }
+
+    @Override
+    public void onBindViewHolder(MonthHolder holder, int position, List<Object> payloads) {
+      if (payloads.isEmpty()) {
+        onBindViewHolder(holder, position);
+      } else {
+        // Only PAYLOAD_CELLS is sent: the month and its title are the same.
+        picker.bindMonthCells(holder.itemView, position);
+      }
+    }
+  }
+
+  private static final class MonthHolder extends RecyclerView.ViewHolder {
+    MonthHolder(View monthView) {
+      super(monthView);
+    }
+  }
+
+  /** Shows the picker's months in this view. */
+  private final class RecyclerHost implements CalendarPickerView.Host {
+    @Override public boolean post(Runnable action) {
+      return CalendarRecyclerView.this.post(action);
+    }
+
+    @Override public int getFirstVisiblePosition() {
+      return Math.max(layoutManager.findFirstVisibleItemPosition(), 0);
+    }
+
+    @Override public int getLastVisiblePosition() {
+      return layoutManager.findLastVisibleItemPosition();
+    }
+
+    @Override public View findMonthView(int position) {
+      return layoutManager.findViewByPosition(position);
+    }
+
+    @Override public void setSelectionFromTop(int position, int y) {
+      layoutManager.scrollToPositionWithOffset(position, y);
+    }
+
+    @Override public void smoothScrollToPosition(int position) {
+      CalendarRecyclerView.this.smoothScrollToPosition(position);
+    }
+
+    @Override public void onMonthsChanged() {
+      adapter.notifyDataSetChanged();
+    }
+
+    @Override public void onMonthsUpdated(int first, int last) {
+      adapter.notifyItemRangeChanged(first, last - first + 1, PAYLOAD_CELLS);
+    }
+  }
+}
@@ -17,6 +17,10 @@ import static android.view.View.MeasureSpec.makeMeasureSpec;
 public class CalendarRowView extends ViewGroup implements View.OnClickListener {
   private boolean isHeaderRow;
   private MonthView.Listener listener;
+  /** The specs cells were last measured for. */
+  private boolean measured;
+  private int oldWidthMeasureSpec;
+  private int oldHeightMeasureSpec;
 
   public CalendarRowView(Context context, AttributeSet attrs) {
     super(context, attrs);
@@ -30,24 +34,40 @@ public class CalendarRowView extends ViewGroup implements View.OnClickListener {
   @Override protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
     long start = System.currentTimeMillis();
     final int totalWidth = MeasureSpec.getSize(widthMeasureSpec);
+    // Rows given an exact height, by grids with a fixed geometry, make their cells that tall.
+    final boolean exactHeight = MeasureSpec.getMode(heightMeasureSpec) == EXACTLY;
+    // Cells are only measured again if their size or their contents changed.
+    final boolean specsChanged = !measured || widthMeasureSpec != oldWidthMeasureSpec
+        || heightMeasureSpec != oldHeightMeasureSpec;
+    final int exactRowHeight =
+        MeasureSpec.getSize(heightMeasureSpec) - getPaddingTop() - getPaddingBottom();
     int rowHeight = 0;
-    int cellHeightSpec = makeMeasureSpec(totalWidth, AT_MOST);
+    int cellHeightSpec = exactHeight
+        ? makeMeasureSpec(exactRowHeight, EXACTLY) : makeMeasureSpec(totalWidth, AT_MOST);
     for (int c = 0, numChildren = getChildCount(); c < numChildren; c++) {
       final View child = getChildAt(c);
-      // Calculate width cells, making sure to cover totalWidth.
-      int l = (c * totalWidth) / 7;
-      int r = ((c + 1) * totalWidth) / 7;
-      int cellSize = r - l;
-      if (!isHeaderRow) {
-        child.setMinimumHeight(cellSize);
+      if (specsChanged || child.isLayoutRequested()) {
+        // Calculate width cells, making sure to cover totalWidth.
+        int l = (c * totalWidth) / 7;
+        int r = ((c + 1) * totalWidth) / 7;
+        int cellSize = r - l;
+        if (!isHeaderRow && specsChanged) {
+          child.setMinimumHeight(cellSize);
+        }
+        int cellWidthSpec = makeMeasureSpec(cellSize, EXACTLY);
+        child.measure(cellWidthSpec, cellHeightSpec);
       }
-      int cellWidthSpec = makeMeasureSpec(cellSize, EXACTLY);
-      child.measure(cellWidthSpec, cellHeightSpec);
       // The row height is the height of the tallest cell.
       if (child.getMeasuredHeight() > rowHeight) {
         rowHeight = child.getMeasuredHeight();
       }
     }
+    measured = true;
+    oldWidthMeasureSpec = widthMeasureSpec;
+    oldHeightMeasureSpec = heightMeasureSpec;
+    if (exactHeight) {
+      rowHeight = exactRowHeight;
+    }
     final int widthWithPadding = totalWidth + getPaddingLeft() + getPaddingRight();
     final int heightWithPadding = rowHeight + getPaddingTop() + getPaddingBottom();
     setMeasuredDimension(widthWithPadding, heightWithPadding);
@@ -87,6 +107,7 @@ public class CalendarRowView extends ViewGroup implements View.OnClickListener {
       if (getChildAt(i) instanceof CalendarCellView) {
         CalendarCellView cell = ((CalendarCellView) getChildAt(i));
         cell.removeAllViews();
+        cell.setDayOfMonthTextView(null);
         adapter.makeCellView(cell);
       }
     }
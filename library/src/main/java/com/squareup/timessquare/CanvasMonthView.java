@@ -0,0 +1,420 @@
+package com.squareup.timessquare;
+
+import static androidx.core.text.TextUtilsCompat.getLayoutDirectionFromLocale;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.os.Bundle;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.SoundEffectConstants;
+import android.view.View;
+import android.view.accessibility.AccessibilityEvent;
+import androidx.core.view.ViewCompat;
+import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
+import androidx.customview.widget.ExploreByTouchHelper;
+import java.text.DateFormat;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Draws a whole month the way a {@link MonthView} lays it out, as one view: the title, the day
+ * names, the cells' backgrounds and day numbers, and the dividers.  Touches are mapped to cells
+ * arithmetically, and cells are exposed to accessibility services as virtual views.
+ * <p>
+ * Cells are drawn with the picker's day background drawable and day text colors in the same
+ * states a {@link CalendarCellView} would be in.  There are no cell views, so
+ * {@link DayViewAdapter}s and decorators aren't used.
+ */
+final class CanvasMonthView extends View {
+  /**
+   * The grid lines don't exactly line up on certain devices (Nexus 7, Nexus 5). Fudging the
+   * co-ordinates by half a point seems to fix this without breaking other devices.
+   */
+  private static final float FLOAT_FUDGE = 0.5f;
+
+  private static final int SELECTED = 1;
+  private static final int PRESSED = 1 << 1;
+  private static final int CURRENT_MONTH = 1 << 2;
+  private static final int SELECTABLE = 1 << 3;
+  private static final int TODAY = 1 << 4;
+  private static final int HIGHLIGHTED = 1 << 5;
+  private static final int PENDING = 1 << 6;
+  private static final int RANGE_SHIFT = 7;
+  /** Drawable states of each combination of the flags above, created when first drawn. */
+  private static final int[][] stateSets = new int[1 << (RANGE_SHIFT + 2)][];
+
+  private final MonthView.Listener listener;
+  private final CellAccessibility accessibility;
+  private final DateFormat fullDateFormat;
+  private final Drawable dayBackground;
+  private final ColorStateList dayTextColors;
+  private final Paint titlePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private final Paint headerPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private final Paint dayPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private final Paint dividerPaint = new Paint();
+  private final DayLabels labels;
+  private final boolean showsWeekdayNames;
+  private final boolean isRtl;
+  private final int titlePaddingTop;
+  private final int titlePaddingBottom;
+  private final int headerPaddingBottom;
+
+  private MonthDescriptor month;
+  private MonthCells cells;
+  private long boundVersion;
+  private boolean displayOnly;
+  private int pressedCell = -1;
+  /** Cell whose tap is being handled by {@link #performClick()}, or -1. */
+  private int clickedCell = -1;
+  /** Measured layout: the cells are squares under the title and the day names. */
+  private int cellSize;
+  private int titleHeight;
+  private int headerHeight;
+
+  CanvasMonthView(Context context, DateFormat weekdayNameFormat, DateFormat fullDateFormat,
+      MonthView.Listener listener, Calendar today, int dividerColor, int dayBackgroundResId,
+      int dayTextColorResId, int titleTextStyle, boolean displayHeader, int headerTextColor,
+      boolean displayDayNamesHeaderRow, boolean displayAlwaysDigitNumbers, Locale locale) {
+    super(context);
+    this.listener = listener;
+    this.fullDateFormat = fullDateFormat;
+    Resources res = getResources();
+    isRtl = getLayoutDirectionFromLocale(locale) == ViewCompat.LAYOUT_DIRECTION_RTL;
+
+    int[] titleAttrs = {
+        android.R.attr.textSize, android.R.attr.textStyle, android.R.attr.textColor,
+        android.R.attr.paddingTop, android.R.attr.paddingBottom
+    };
+    TypedArray a = context.obtainStyledAttributes(titleTextStyle, titleAttrs);
+    titlePaint.setTextSize(a.getDimensionPixelSize(0,
+        res.getDimensionPixelSize(R.dimen.calendar_text_medium)));
+    titlePaint.setFakeBoldText((a.getInt(1, Typeface.BOLD) & Typeface.BOLD) != 0);
+    titlePaint.setColor(a.getColor(2, res.getColor(R.color.calendar_text_active)));
+    titlePaddingTop = a.getDimensionPixelSize(3, 0);
+    titlePaddingBottom = a.getDimensionPixelSize(4, 0);
+    a.recycle();
+    titlePaint.setTextAlign(Paint.Align.CENTER);
+
+    headerPaint.setTextSize(res.getDimensionPixelSize(R.dimen.calendar_text_small));
+    headerPaint.setColor(headerTextColor);
+    headerPaint.setTextAlign(Paint.Align.CENTER);
+    headerPaddingBottom = res.getDimensionPixelSize(R.dimen.calendar_day_headers_paddingbottom);
+    dayPaint.setTextSize(res.getDimensionPixelSize(R.dimen.calendar_text_medium));
+    dayPaint.setFakeBoldText(true);
+    dayPaint.setTextAlign(Paint.Align.CENTER);
+    dividerPaint.setColor(dividerColor);
+    dayBackground = dayBackgroundResId != 0 ? res.getDrawable(dayBackgroundResId) : null;
+    dayTextColors = res.getColorStateList(dayTextColorResId);
+
+    labels = DayLabels.get(locale, displayAlwaysDigitNumbers, weekdayNameFormat,
+        today.getFirstDayOfWeek());
+    showsWeekdayNames = displayHeader && displayDayNamesHeaderRow;
+
+    accessibility = new CellAccessibility(this);
+    ViewCompat.setAccessibilityDelegate(this, accessibility);
+  }
+
+  /** Shows {@code cells}, drawing again only if they changed since they were last shown. */
+  void init(MonthDescriptor month, MonthCells cells, boolean displayOnly, Typeface titleTypeface,
+      Typeface dateTypeface) {
+    boolean changed = month != this.month;
+    this.month = month;
+    if (titleTypeface != null && titleTypeface != titlePaint.getTypeface()) {
+      titlePaint.setTypeface(titleTypeface);
+      changed = true;
+    }
+    if (dateTypeface != null && dateTypeface != dayPaint.getTypeface()) {
+      headerPaint.setTypeface(dateTypeface);
+      dayPaint.setTypeface(dateTypeface);
+      changed = true;
+    }
+    setCells(cells, displayOnly, changed);
+  }
+
+  /** Shows {@code cells} of the month this view already shows, leaving its title alone. */
+  void setCells(MonthCells cells, boolean displayOnly) {
+    setCells(cells, displayOnly, false);
+  }
+
+  private void setCells(MonthCells cells, boolean displayOnly, boolean changed) {
+    changed |= cells != this.cells || cells.getVersion() != boundVersion
+        || displayOnly != this.displayOnly;
+    if (this.cells == null || cells.getNumRows() != this.cells.getNumRows()) {
+      requestLayout();
+    }
+    this.cells = cells;
+    boundVersion = cells.getVersion();
+    this.displayOnly = displayOnly;
+    if (changed) {
+      pressedCell = -1;
+      invalidate();
+      accessibility.invalidateRoot();
+    }
+  }
+
+  @Override protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+    int width = MeasureSpec.getSize(widthMeasureSpec);
+    cellSize = width / 7;
+    titleHeight = titlePaddingTop + textHeight(titlePaint) + titlePaddingBottom;
+    headerHeight = showsWeekdayNames ? textHeight(headerPaint) + headerPaddingBottom : 0;
+    int numRows = cells != null ? cells.getNumRows() : 6;
+    setMeasuredDimension(width, titleHeight + headerHeight + numRows * cellSize);
+  }
+
+  private static int textHeight(Paint paint) {
+    return (int) Math.ceil(paint.descent() - paint.ascent());
+  }
+
+  @Override protected void onDraw(Canvas canvas) {
+    if (cells == null) {
+      return;
+    }
+    int width = cellSize * 7;
+    float centerX = width / 2f;
+    canvas.drawText(month.getLabel(), centerX, titlePaddingTop - titlePaint.ascent(), titlePaint);
+
+    float top = titleHeight;
+    if (showsWeekdayNames) {
+      float baseline = top - headerPaint.ascent();
+      for (int c = 0; c < 7; c++) {
+        canvas.drawText(labels.getWeekdayName(c), c * cellSize + cellSize / 2f, baseline,
+            headerPaint);
+      }
+      top += headerHeight;
+      canvas.drawLine(0, top - 1, width - 2, top - 1, dividerPaint);
+    }
+
+    int gridTop = (int) top;
+    int numRows = cells.getNumRows();
+    float dayOffset = -(dayPaint.ascent() + dayPaint.descent()) / 2;
+    for (int row = 0; row < numRows; row++) {
+      int rowTop = gridTop + row * cellSize;
+      for (int c = 0; c < 7; c++) {
+        int cell = row * 7 + (isRtl ? 6 - c : c);
+        int[] stateSet = stateSet(cell);
+        int left = c * cellSize;
+        if (dayBackground != null) {
+          dayBackground.setState(stateSet);
+          dayBackground.setBounds(left, rowTop, left + cellSize, rowTop + cellSize);
+          dayBackground.draw(canvas);
+        }
+        dayPaint.setColor(dayTextColors.getColorForState(stateSet, 0));
+        canvas.drawText(labels.getDayNumber(cells.getValue(cell)), left + cellSize / 2f,
+            rowTop + cellSize / 2f + dayOffset, dayPaint);
+      }
+      // Each row's bottom border.
+      int bottom = rowTop + cellSize - 1;
+      canvas.drawLine(0, bottom, width - 2, bottom, dividerPaint);
+    }
+
+    // The left border and each cell's right-side border.
+    int bottom = gridTop + numRows * cellSize;
+    canvas.drawLine(FLOAT_FUDGE, gridTop, FLOAT_FUDGE, bottom, dividerPaint);
+    for (int c = 1; c <= 7; c++) {
+      float x = c * cellSize - FLOAT_FUDGE;
+      canvas.drawLine(x, gridTop, x, bottom, dividerPaint);
+    }
+  }
+
+  /** Returns the drawable state a {@link CalendarCellView} showing {@code cell} would have. */
+  private int[] stateSet(int cell) {
+    boolean pending = cells.isPending(cell);
+    int flags = (cells.isSelected(cell) ? SELECTED : 0)
+        | (cell == pressedCell ? PRESSED : 0)
+        | (cells.isCurrentMonth(cell) ? CURRENT_MONTH : 0)
+        | (cells.isSelectable(cell) && !pending ? SELECTABLE : 0)
+        | (cells.isToday(cell) ? TODAY : 0)
+        | (cells.isHighlighted(cell) ? HIGHLIGHTED : 0)
+        | (pending ? PENDING : 0)
+        | cells.getRangeState(cell).ordinal() << RANGE_SHIFT;
+    int[] stateSet = stateSets[flags];
+    if (stateSet == null) {
+      stateSet = new int[9];
+      int i = 0;
+      if ((flags & CURRENT_MONTH) != 0) {
+        // Cells of other months are disabled.
+        stateSet[i++] = android.R.attr.state_enabled;
+        stateSet[i++] = R.attr.tsquare_state_current_month;
+      }
+      if ((flags & SELECTED) != 0) {
+        stateSet[i++] = android.R.attr.state_selected;
+      }
+      if ((flags & PRESSED) != 0) {
+        stateSet[i++] = android.R.attr.state_pressed;
+      }
+      if ((flags & SELECTABLE) != 0) {
+        stateSet[i++] = R.attr.tsquare_state_selectable;
+      }
+      if ((flags & TODAY) != 0) {
+        stateSet[i++] = R.attr.tsquare_state_today;
+      }
+      if ((flags & HIGHLIGHTED) != 0) {
+        stateSet[i++] = R.attr.tsquare_state_highlighted;
+      }
+      if ((flags & PENDING) != 0) {
+        stateSet[i++] = R.attr.tsquare_state_pending;
+      }
+      RangeState rangeState = RangeState.values()[flags >> RANGE_SHIFT];
+      if (rangeState == RangeState.FIRST) {
+        stateSet[i++] = R.attr.tsquare_state_range_first;
+      } else if (rangeState == RangeState.MIDDLE) {
+        stateSet[i++] = R.attr.tsquare_state_range_middle;
+      } else if (rangeState == RangeState.LAST) {
+        stateSet[i++] = R.attr.tsquare_state_range_last;
+      }
+      // Unused entries stay 0, which ends a state set.
+      stateSets[flags] = stateSet;
+    }
+    return stateSet;
+  }
+
+  /** Returns the cell at {@code x}, {@code y}, or -1 if there is none. */
+  int cellAt(float x, float y) {
+    int gridTop = titleHeight + headerHeight;
+    if (cells == null || cellSize == 0 || x < 0 || y < gridTop) {
+      return -1;
+    }
+    int row = (int) (y - gridTop) / cellSize;
+    int c = (int) x / cellSize;
+    if (row >= cells.getNumRows() || c >= 7) {
+      return -1;
+    }
+    return row * 7 + (isRtl ? 6 - c : c);
+  }
+
+  private void getCellBounds(int cell, Rect bounds) {
+    int row = cell / 7;
+    int c = isRtl ? 6 - cell % 7 : cell % 7;
+    int top = titleHeight + headerHeight + row * cellSize;
+    bounds.set(c * cellSize, top, (c + 1) * cellSize, top + cellSize);
+  }
+
+  /** Returns whether {@code cell} takes clicks, as only enabled cell views would. */
+  private boolean isClickable(int cell) {
+    return !displayOnly && cells.isCurrentMonth(cell);
+  }
+
+  private void clickCell(int cell) {
+    playSoundEffect(SoundEffectConstants.CLICK);
+    if (listener != null) {
+      listener.handleClick(cells.getCell(cell));
+    }
+    accessibility.sendEventForVirtualView(cell, AccessibilityEvent.TYPE_VIEW_CLICKED);
+  }
+
+  @Override public boolean onTouchEvent(MotionEvent event) {
+    switch (event.getActionMasked()) {
+      case MotionEvent.ACTION_DOWN:
+        int cell = cellAt(event.getX(), event.getY());
+        if (cell < 0 || !isClickable(cell)) {
+          return false;
+        }
+        setPressedCell(cell);
+        return true;
+      case MotionEvent.ACTION_MOVE:
+        if (pressedCell >= 0 && cellAt(event.getX(), event.getY()) != pressedCell) {
+          setPressedCell(-1);
+        }
+        return true;
+      case MotionEvent.ACTION_UP:
+        if (pressedCell >= 0) {
+          clickedCell = pressedCell;
+          setPressedCell(-1);
+          performClick();
+        }
+        return true;
+      case MotionEvent.ACTION_CANCEL:
+        setPressedCell(-1);
+        return true;
+      default:
+        return super.onTouchEvent(event);
+    }
+  }
+
+  /** Clicks the cell that was tapped, if this is called for a tap. */
+  @Override public boolean performClick() {
+    boolean handled = super.performClick();
+    if (clickedCell >= 0) {
+      int cell = clickedCell;
+      clickedCell = -1;
+      clickCell(cell);
+      return true;
+    }
+    return handled;
+  }
+
+  private void setPressedCell(int cell) {
+    if (pressedCell != cell) {
+      pressedCell = cell;
+      invalidate();
+    }
+  }
+
+  @Override public boolean dispatchHoverEvent(MotionEvent event) {
+    return accessibility.dispatchHoverEvent(event) || super.dispatchHoverEvent(event);
+  }
+
+  @Override public boolean dispatchKeyEvent(KeyEvent event) {
+    return accessibility.dispatchKeyEvent(event) || super.dispatchKeyEvent(event);
+  }
+
+  @Override protected void onFocusChanged(boolean gainFocus, int direction,
+      Rect previouslyFocusedRect) {
+    super.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+    accessibility.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+  }
+
+  /** Exposes each cell of the month as a virtual view whose id is its index. */
+  private final class CellAccessibility extends ExploreByTouchHelper {
+    private final Rect bounds = new Rect();
+
+    CellAccessibility(View host) {
+      super(host);
+    }
+
+    @Override protected int getVirtualViewAt(float x, float y) {
+      int cell = cellAt(x, y);
+      return cell >= 0 ? cell : INVALID_ID;
+    }
+
+    @Override protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+      if (cells == null) {
+        return;
+      }
+      for (int cell = 0; cell < cells.size(); cell++) {
+        virtualViewIds.add(cell);
+      }
+    }
+
+    @Override protected void onPopulateNodeForVirtualView(int cell,
+        AccessibilityNodeInfoCompat node) {
+      node.setContentDescription(fullDateFormat.format(cells.getDate(cell)));
+      getCellBounds(cell, bounds);
+      node.setBoundsInParent(bounds);
+      node.setEnabled(cells.isCurrentMonth(cell));
+      node.setSelected(cells.isSelected(cell));
+      if (isClickable(cell)) {
+        node.setClickable(true);
+        node.addAction(AccessibilityNodeInfoCompat.ACTION_CLICK);
+      }
+    }
+
+    @Override protected boolean onPerformActionForVirtualView(int cell, int action,
+        Bundle arguments) {
+      if (action == AccessibilityNodeInfoCompat.ACTION_CLICK && isClickable(cell)) {
+        clickCell(cell);
+        return true;
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.squareup.timessquare;
+
+import java.text.DateFormat;
+import java.text.NumberFormat;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static androidx.core.text.TextUtilsCompat.getLayoutDirectionFromLocale;
+import static androidx.core.view.ViewCompat.LAYOUT_DIRECTION_RTL;
+
+/**
+ * The day numbers and weekday names month views show, formatted once for each locale and weekday
+ * format.  Labels are immutable and shared by every picker through {@link #get}, so binding a
+ * month formats nothing.
+ */
+final class DayLabels {
+  /** Enough for several pickers with a few locales or weekday formats each. */
+  private static final int MAX_CACHED = 16;
+
+  private static final Map<List<Object>, DayLabels> cache =
+      new LinkedHashMap<List<Object>, DayLabels>(16, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<List<Object>, DayLabels> eldest) {
+          return size() > MAX_CACHED;
+        }
+      };
+
+  private final String[] dayNumbers = new String[31];
+  private final String[] weekdayNames = new String[7];
+
+  /**
+   * Returns the labels of months shown in {@code locale}, with digits of {@link Locale#US} if
+   * {@code alwaysDigitNumbers}, and weeks starting on {@code firstDayOfWeek}.  The format isn't
+   * changed or kept, so it may be changed afterwards.
+   */
+  static DayLabels get(Locale locale, boolean alwaysDigitNumbers, DateFormat weekdayNameFormat,
+      int firstDayOfWeek) {
+    synchronized (cache) {
+      // Formats aren't thread safe: only use them while holding the lock, and key on a copy.
+      List<Object> key = Arrays.<Object>asList(locale, alwaysDigitNumbers,
+          weekdayNameFormat, firstDayOfWeek);
+      DayLabels labels = cache.get(key);
+      if (labels == null) {
+        DateFormat format = (DateFormat) weekdayNameFormat.clone();
+        labels = new DayLabels(locale, alwaysDigitNumbers, format, firstDayOfWeek);
+        cache.put(Arrays.<Object>asList(locale, alwaysDigitNumbers, format, firstDayOfWeek),
+            labels);
+      }
+      return labels;
+    }
+  }
+
+  private DayLabels(Locale locale, boolean alwaysDigitNumbers, DateFormat weekdayNameFormat,
+      int firstDayOfWeek) {
+    NumberFormat numberFormat = NumberFormat.getInstance(alwaysDigitNumbers ? Locale.US : locale);
+    for (int i = 0; i < dayNumbers.length; i++) {
+      dayNumbers[i] = numberFormat.format(i + 1);
+    }
+    boolean isRtl = getLayoutDirectionFromLocale(locale) == LAYOUT_DIRECTION_RTL;
+    // A day of each weekday in the format's own time zone.
+    Calendar day = (Calendar) weekdayNameFormat.getCalendar().clone();
+    for (int column = 0; column < 7; column++) {
+      int dayOfWeek = firstDayOfWeek + column;
+      day.set(Calendar.DAY_OF_WEEK, isRtl ? 8 - dayOfWeek : dayOfWeek);
+      weekdayNames[column] = weekdayNameFormat.format(day.getTime());
+    }
+  }
+
+  /** Returns {@code dayOfMonth}, from 1 to 31, as it's shown in a cell. */
+  String getDayNumber(int dayOfMonth) {
+    return dayNumbers[dayOfMonth - 1];
+  }
+
+  /** Returns the name of the weekday shown in {@code column} of the day names header. */
+  String getWeekdayName(int column) {
+    return weekdayNames[column];
+  }
+}
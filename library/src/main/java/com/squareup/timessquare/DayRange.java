@@ -0,0 +1,57 @@
+package com.squareup.timessquare;
+
+/**
+ * The days selected in {@link CalendarPickerView.SelectionMode#RANGE} mode, stored as the epoch
+ * days of its ends.  The days in between are never stored: their state is derived from the ends
+ * when they are displayed, so a range costs the same no matter how long it is.
+ */
+final class DayRange {
+  private boolean empty = true;
+  private int start;
+  private int end;
+
+  boolean isEmpty() {
+    return empty;
+  }
+
+  int getStart() {
+    return start;
+  }
+
+  int getEnd() {
+    return end;
+  }
+
+  /** Number of days in the range, ends included. */
+  int size() {
+    return empty ? 0 : end - start + 1;
+  }
+
+  void set(int start, int end) {
+    this.start = start;
+    this.end = end;
+    empty = false;
+  }
+
+  void clear() {
+    empty = true;
+  }
+
+  /** Returns whether {@code day} is strictly between the ends of the range. */
+  boolean isMiddle(int day) {
+    return !empty && day > start && day < end;
+  }
+
+  RangeState getRangeState(int day) {
+    if (empty) {
+      return RangeState.NONE;
+    }
+    if (day == start) {
+      return RangeState.FIRST;
+    }
+    if (day == end) {
+      return RangeState.LAST;
+    }
+    return day > start && day < end ? RangeState.MIDDLE : RangeState.NONE;
+  }
+}
@@ -0,0 +1,151 @@
+package com.squareup.timessquare;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of epoch days (see {@link EpochDay}), stored as a bitset that grows in either direction as
+ * days are added.  Membership tests, additions and removals are constant time no matter how many
+ * days the set holds, and the first and last days are kept up to date as the set changes.
+ */
+final class DaySet {
+  private static final long[] EMPTY = new long[0];
+
+  private long[] words = EMPTY;
+  /** Epoch day of the first bit of {@link #words}.  Always a multiple of 64. */
+  private int origin;
+  private int size;
+  private int first;
+  private int last;
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Returns the earliest day in the set.  The set must not be empty. */
+  int first() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    return first;
+  }
+
+  /** Returns the latest day in the set.  The set must not be empty. */
+  int last() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    return last;
+  }
+
+  /** Returns the earliest day in the set on or after {@code from}, or MAX_VALUE if there's none. */
+  int nextDay(int from) {
+    if (size == 0 || from > last) {
+      return Integer.MAX_VALUE;
+    }
+    if (from <= first) {
+      return first;
+    }
+    int word = (from - origin) >> 6;
+    long bits = words[word] & (-1L << from);
+    while (bits == 0) {
+      bits = words[++word];
+    }
+    return origin + word * 64 + Long.numberOfTrailingZeros(bits);
+  }
+
+  /** Returns the latest day in the set on or before {@code from}, or MIN_VALUE if there's none. */
+  int previousDay(int from) {
+    if (size == 0 || from < first) {
+      return Integer.MIN_VALUE;
+    }
+    if (from >= last) {
+      return last;
+    }
+    int word = (from - origin) >> 6;
+    long bits = words[word] & (-1L >>> (63 - (from & 63)));
+    while (bits == 0) {
+      bits = words[--word];
+    }
+    return origin + word * 64 + 63 - Long.numberOfLeadingZeros(bits);
+  }
+
+  boolean contains(int day) {
+    int word = (day - origin) >> 6;
+    return word >= 0 && word < words.length && (words[word] & (1L << day)) != 0;
+  }
+
+  /** Adds {@code day}, returning false if it was already in the set. */
+  boolean add(int day) {
+    ensureCapacity(day);
+    int word = (day - origin) >> 6;
+    long bit = 1L << day;
+    if ((words[word] & bit) != 0) {
+      return false;
+    }
+    words[word] |= bit;
+    if (size == 0 || day < first) {
+      first = day;
+    }
+    if (size == 0 || day > last) {
+      last = day;
+    }
+    size++;
+    return true;
+  }
+
+  /** Removes {@code day}, returning false if it wasn't in the set. */
+  boolean remove(int day) {
+    if (!contains(day)) {
+      return false;
+    }
+    words[(day - origin) >> 6] &= ~(1L << day);
+    size--;
+    if (size > 0) {
+      // If an end was removed, the new end is the nearest remaining day inwards.
+      if (day == first) {
+        first = nextDay(day + 1);
+      }
+      if (day == last) {
+        last = previousDay(day - 1);
+      }
+    }
+    return true;
+  }
+
+  void clear() {
+    Arrays.fill(words, 0);
+    size = 0;
+  }
+
+  private void ensureCapacity(int day) {
+    // Shifts take their distance mod 64, so clearing the low bits rounds down even for negative
+    // days, and bit (day & 63) of a word is the same bit as 1L << day.
+    int dayWord = day & ~63;
+    if (words.length == 0) {
+      origin = dayWord;
+      words = new long[1];
+    } else if (size == 0) {
+      // Every word is clear, so the array can start wherever the new day is.
+      if (day < origin || ((day - origin) >> 6) >= words.length) {
+        origin = dayWord;
+      }
+    } else if (day < origin) {
+      // Grow at least twice as large so walking backwards a day at a time stays amortized O(1).
+      int newOrigin = Math.min(dayWord, origin - words.length * 64);
+      long[] newWords = new long[words.length + ((origin - newOrigin) >> 6)];
+      System.arraycopy(words, 0, newWords, (origin - newOrigin) >> 6, words.length);
+      words = newWords;
+      origin = newOrigin;
+    } else {
+      int word = (day - origin) >> 6;
+      if (word >= words.length) {
+        words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+      }
+    }
+  }
+}
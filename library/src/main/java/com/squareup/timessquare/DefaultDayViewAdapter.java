@@ -1,21 +1,16 @@
 package com.squareup.timessquare;
 
 import android.view.ContextThemeWrapper;
-import android.widget.FrameLayout;
-import android.widget.TextView;
-
-import static android.view.Gravity.CENTER_VERTICAL;
-import static android.view.ViewGroup.LayoutParams.MATCH_PARENT;
-import static android.view.ViewGroup.LayoutParams.WRAP_CONTENT;
 
+/**
+ * Shows the day number.  The cell draws it itself, so each day is a single view: its
+ * {@link CalendarCellView#getDayOfMonthTextView() text view} isn't added to the cell and only holds
+ * the number and its style.  Styled or multi-line text, and the text view's gravity, padding and
+ * background, are drawn as the text view would draw them.
+ */
 public class DefaultDayViewAdapter implements DayViewAdapter {
   @Override public void makeCellView(CalendarCellView parent) {
-    TextView textView = new TextView(
-        new ContextThemeWrapper(parent.getContext(), R.style.CalendarCell_CalendarDate));
-    textView.setDuplicateParentStateEnabled(true);
-
-    parent.addView(textView,
-        new FrameLayout.LayoutParams(MATCH_PARENT, WRAP_CONTENT, CENTER_VERTICAL));
-    parent.setDayOfMonthTextView(textView);
+    parent.setDayOfMonthTextView(new CalendarCellView.DrawnTextView(
+        new ContextThemeWrapper(parent.getContext(), R.style.CalendarCell_CalendarDate), parent));
   }
 }
@@ -0,0 +1,129 @@
+package com.squareup.timessquare;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+import static java.util.Calendar.DST_OFFSET;
+import static java.util.Calendar.ZONE_OFFSET;
+
+/**
+ * Date arithmetic on epoch days: the number of days since 1970-01-01.  An epoch day is a civil
+ * date with no time of day or time zone attached, so everything here works on plain ints and
+ * doesn't allocate.  Time zones only come in when converting to and from instants.
+ * <p>
+ * Months are numbered from 0 like {@link Calendar#MONTH}, and an <em>absolute month</em> is
+ * {@code year * 12 + month}.  Dates follow the proleptic Gregorian calendar.
+ */
+final class EpochDay {
+  private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+  /** Days from 0000-03-01, the start of the 400 year cycle, to 1970-01-01. */
+  private static final int DAYS_0000_TO_1970 = 719468;
+  private static final int DAYS_PER_400_YEARS = 146097;
+
+  private EpochDay() {
+  }
+
+  /** Returns the epoch day of the date {@code cal} is set to, in the calendar's time zone. */
+  static int of(Calendar cal) {
+    return floorDays(cal.getTimeInMillis() + cal.get(ZONE_OFFSET) + cal.get(DST_OFFSET));
+  }
+
+  /** Returns the epoch day of {@code date} in {@code timeZone}. */
+  static int of(Date date, TimeZone timeZone) {
+    return of(date.getTime(), timeZone);
+  }
+
+  /** Returns the epoch day of the instant {@code millis} in {@code timeZone}. */
+  static int of(long millis, TimeZone timeZone) {
+    return floorDays(millis + timeZone.getOffset(millis));
+  }
+
+  /** Returns the epoch day of a civil date. */
+  static int of(int year, int month, int dayOfMonth) {
+    // Count years from March so the leap day is the last day of the year.
+    int m = month + 1;
+    int y = m <= 2 ? year - 1 : year;
+    int era = (y >= 0 ? y : y - 399) / 400;
+    int yearOfEra = y - era * 400;
+    int dayOfYear = (153 * (m > 2 ? m - 3 : m + 9) + 2) / 5 + dayOfMonth - 1;
+    int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * DAYS_PER_400_YEARS + dayOfEra - DAYS_0000_TO_1970;
+  }
+
+  /**
+   * Returns the start of {@code epochDay} in {@code timeZone}: midnight, or the first instant after
+   * it where clocks skip midnight.
+   */
+  static Date toDate(int epochDay, TimeZone timeZone) {
+    long localMidnight = epochDay * MILLIS_PER_DAY;
+    // The offset at midnight may differ from the offset a few hours either side of it (DST), so
+    // correct the first guess with the offset in effect at that guess.
+    long guess = localMidnight - timeZone.getOffset(localMidnight);
+    long millis = localMidnight - timeZone.getOffset(guess);
+    if (of(millis, timeZone) != epochDay) {
+      // Clocks went forward at midnight, so the guess's offset is the later one and the instant
+      // is on the day before.  The day starts at the transition: midnight in the earlier offset.
+      millis = localMidnight - timeZone.getOffset(millis);
+    }
+    return new Date(millis);
+  }
+
+  /** Returns the absolute month ({@code year * 12 + month}) that {@code epochDay} falls in. */
+  static int absoluteMonth(int epochDay) {
+    return civil(epochDay) >> 5;
+  }
+
+  static int dayOfMonth(int epochDay) {
+    return civil(epochDay) & 31;
+  }
+
+  /** Returns the epoch day of the first day of {@code absoluteMonth}. */
+  static int firstDayOfMonth(int absoluteMonth) {
+    return of(year(absoluteMonth), month(absoluteMonth), 1);
+  }
+
+  static int daysInMonth(int absoluteMonth) {
+    return firstDayOfMonth(absoluteMonth + 1) - firstDayOfMonth(absoluteMonth);
+  }
+
+  static int year(int absoluteMonth) {
+    return (absoluteMonth >= 0 ? absoluteMonth : absoluteMonth - 11) / 12;
+  }
+
+  static int month(int absoluteMonth) {
+    return absoluteMonth - year(absoluteMonth) * 12;
+  }
+
+  /** Returns the day of the week of {@code epochDay}, from {@link Calendar#SUNDAY} onwards. */
+  static int dayOfWeek(int epochDay) {
+    // 1970-01-01 was a Thursday.
+    int daysSinceSunday = (epochDay + 4) % 7;
+    if (daysSinceSunday < 0) {
+      daysSinceSunday += 7;
+    }
+    return daysSinceSunday + Calendar.SUNDAY;
+  }
+
+  /** Returns the absolute month and day of month of {@code epochDay} as (month << 5) | day. */
+  private static int civil(int epochDay) {
+    int z = epochDay + DAYS_0000_TO_1970;
+    int era = (z >= 0 ? z : z - DAYS_PER_400_YEARS + 1) / DAYS_PER_400_YEARS;
+    int dayOfEra = z - era * DAYS_PER_400_YEARS;
+    int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    int marchMonth = (5 * dayOfYear + 2) / 153;
+    int dayOfMonth = dayOfYear - (153 * marchMonth + 2) / 5 + 1;
+    int month = marchMonth < 10 ? marchMonth + 2 : marchMonth - 10;
+    int year = yearOfEra + era * 400 + (month <= Calendar.FEBRUARY ? 1 : 0);
+    return ((year * 12 + month) << 5) | dayOfMonth;
+  }
+
+  private static int floorDays(long localMillis) {
+    long days = localMillis / MILLIS_PER_DAY;
+    if (localMillis % MILLIS_PER_DAY < 0) {
+      days--;
+    }
+    return (int) days;
+  }
+}
@@ -4,92 +4,82 @@ package com.squareup.timessquare;
 
 import java.util.Date;
 
-/** Describes the state of a particular date cell in a {@link MonthView}. */
+/**
+ * Describes the state of a particular date cell in a {@link MonthView}.  This is a view onto one
+ * cell of a {@link MonthCells}: it holds no state of its own, and its state changes as the
+ * picker's selection does.
+ */
 class MonthCellDescriptor {
 
-  private final Date date;
-  private final int value;
-  private final boolean isCurrentMonth;
-  private boolean isSelected;
-  private final boolean isToday;
-  private final boolean isSelectable;
-  private boolean isHighlighted;
-  private RangeState rangeState;
-
-  MonthCellDescriptor(Date date, boolean currentMonth, boolean selectable, boolean selected,
-      boolean today, boolean highlighted, int value, RangeState rangeState) {
-    this.date = date;
-    isCurrentMonth = currentMonth;
-    isSelectable = selectable;
-    isHighlighted = highlighted;
-    isSelected = selected;
-    isToday = today;
-    this.value = value;
-    this.rangeState = rangeState;
+  private final MonthCells month;
+  private final int index;
+
+  MonthCellDescriptor(MonthCells month, int index) {
+    this.month = month;
+    this.index = index;
   }
 
   public Date getDate() {
-    return date;
+    return month.getDate(index);
+  }
+
+  int getDay() {
+    return month.getDay(index);
   }
 
   public boolean isCurrentMonth() {
-    return isCurrentMonth;
+    return month.isCurrentMonth(index);
   }
 
   public boolean isSelectable() {
-    return isSelectable;
+    return month.isSelectable(index);
   }
 
-  public boolean isSelected() {
-    return isSelected;
+  /** Whether the date would be selectable but its availability hasn't been loaded yet. */
+  public boolean isPending() {
+    return month.isPending(index);
   }
 
-  public void setSelected(boolean selected) {
-    isSelected = selected;
+  public boolean isSelected() {
+    return month.isSelected(index);
   }
 
   boolean isHighlighted() {
-    return isHighlighted;
-  }
-
-  void setHighlighted(boolean highlighted) {
-    isHighlighted = highlighted;
+    return month.isHighlighted(index);
   }
 
   public boolean isToday() {
-    return isToday;
+    return month.isToday(index);
   }
 
   public RangeState getRangeState() {
-    return rangeState;
-  }
-
-  public void setRangeState(RangeState rangeState) {
-    this.rangeState = rangeState;
+    return month.getRangeState(index);
   }
 
   public int getValue() {
-    return value;
+    return month.getValue(index);
   }
 
   @Override public String toString() {
     return "MonthCellDescriptor{"
         + "date="
-        + date
+        + getDate()
         + ", value="
-        + value
+        + getValue()
         + ", isCurrentMonth="
-        + isCurrentMonth
+        + isCurrentMonth()
         + ", isSelected="
-        + isSelected
+        + isSelected()
         + ", isToday="
-        + isToday
+        + isToday()
         + ", isSelectable="
-        + isSelectable
+        + isSelectable()
+        + ", isPending="
+        + isPending()
         + ", isHighlighted="
-        + isHighlighted
+        + isHighlighted()
         + ", rangeState="
-        + rangeState
+        + getRangeState()
         + '}';
   }
 }
@@ -0,0 +1,152 @@
+package com.squareup.timessquare;
+
+import java.util.Date;
+
+/**
+ * The cells of one month in a {@link MonthView}.  A month is a small overlay: the days it shows
+ * come from a shared {@link MonthTemplate}, and selection, highlight, range and today come from
+ * the picker's {@link PickerState} when a cell is asked for.  The month itself only stores which
+ * of its cells are selectable, one bit each.
+ * {@link MonthCellDescriptor}s are only created for cells that are handed out through the view
+ * layer.
+ */
+final class MonthCells {
+  private final MonthTemplate template;
+  private final PickerState state;
+  /** Bit {@code i} is set if cell {@code i} is selectable.  A month has at most 42 cells. */
+  private long selectable;
+  /** Bit {@code i} is set if cell {@code i} is available; see {@link #setAvailable}. */
+  private long available = -1L;
+  private boolean availabilityPending;
+  /** Changes whenever what the month itself stores does. */
+  private int version;
+  private MonthCellDescriptor[] descriptors;
+
+  MonthCells(MonthTemplate template, PickerState state) {
+    this.template = template;
+    this.state = state;
+  }
+
+  MonthTemplate getTemplate() {
+    return template;
+  }
+
+  /**
+   * Returns a number that changes whenever the cells' state may have: with the month's own
+   * version in the low half and the picker's in the high half.
+   */
+  long getVersion() {
+    return (long) state.version << 32 | (version & 0xffffffffL);
+  }
+
+  /** Marks the cells as changed, for when the picker's state changed for some of them. */
+  void invalidate() {
+    version++;
+  }
+
+  int size() {
+    return template.size();
+  }
+
+  int getNumRows() {
+    return template.getNumRows();
+  }
+
+  int getFirstDay() {
+    return template.getFirstDay();
+  }
+
+  int getDay(int index) {
+    return template.getDay(index);
+  }
+
+  Date getDate(int index) {
+    return EpochDay.toDate(template.getDay(index), state.timeZone);
+  }
+
+  /** Returns the day of month shown in the cell. */
+  int getValue(int index) {
+    return template.getValue(index);
+  }
+
+  boolean isCurrentMonth(int index) {
+    return template.isCurrentMonth(index);
+  }
+
+  /**
+   * Returns whether the cell can be selected.  While the month's availability is pending its
+   * cells count as available, so they can be selected programmatically.
+   */
+  boolean isSelectable(int index) {
+    long bit = 1L << index;
+    return (selectable & bit) != 0 && (availabilityPending || (available & bit) != 0);
+  }
+
+  /** Returns whether the cell would be selectable but its availability isn't known yet. */
+  boolean isPending(int index) {
+    return availabilityPending && (selectable & (1L << index)) != 0;
+  }
+
+  boolean isAvailabilityPending() {
+    return availabilityPending;
+  }
+
+  /** Marks the month as waiting for its availability. */
+  void setAvailabilityPending() {
+    version++;
+    availabilityPending = true;
+  }
+
+  /** Sets which cells are available, one bit each, and ends the month's pending state. */
+  void setAvailable(long available) {
+    version++;
+    this.available = available;
+    availabilityPending = false;
+  }
+
+  void setSelectable(int index, boolean selectable) {
+    version++;
+    if (selectable) {
+      this.selectable |= 1L << index;
+    } else {
+      this.selectable &= ~(1L << index);
+    }
+  }
+
+  /** Returns whether the cell is selected, either on its own or in the middle of the range. */
+  boolean isSelected(int index) {
+    int day = getDay(index);
+    return (isCurrentMonth(index) && state.selectedDays.contains(day))
+        || (state.range.isMiddle(day) && isSelectable(index));
+  }
+
+  boolean isToday(int index) {
+    return getDay(index) == state.today;
+  }
+
+  boolean isHighlighted(int index) {
+    return state.highlightedDays.contains(getDay(index));
+  }
+
+  RangeState getRangeState(int index) {
+    RangeState rangeState = state.range.getRangeState(getDay(index));
+    if (rangeState == RangeState.MIDDLE && !isSelectable(index)) {
+      // Days that can't be selected aren't part of the range; it just spans them.
+      return RangeState.NONE;
+    }
+    return rangeState;
+  }
+
+  /** Returns the descriptor for a cell, creating it the first time the cell is asked for. */
+  MonthCellDescriptor getCell(int index) {
+    if (descriptors == null) {
+      descriptors = new MonthCellDescriptor[template.size()];
+    }
+    MonthCellDescriptor descriptor = descriptors[index];
+    if (descriptor == null) {
+      descriptor = new MonthCellDescriptor(this, index);
+      descriptors[index] = descriptor;
+    }
+    return descriptor;
+  }
+}
@@ -0,0 +1,55 @@
+package com.squareup.timessquare;
+
+/**
+ * Decorates the cells of a whole month at once.  Unlike a {@link CalendarCellDecorator}, which is
+ * called for every cell each time a month is bound, a month decorator is called once per month,
+ * only for the months it {@link #affects}, and only again when the month or the decorator's
+ * {@link #getVersion() version} changes.
+ * <p>
+ * Days are epoch days: the number of days since 1970-01-01.
+ *
+ * @see CalendarPickerView#setMonthDecorators(java.util.List)
+ */
+public interface MonthDecorator {
+  int CURRENT_MONTH = 1;
+  int SELECTABLE = 1 << 1;
+  int SELECTED = 1 << 2;
+  int TODAY = 1 << 3;
+  int HIGHLIGHTED = 1 << 4;
+  int PENDING = 1 << 5;
+
+  /** Returns whether this decorator changes any cell from {@code firstDay} to {@code lastDay}. */
+  boolean affects(int firstDay, int lastDay);
+
+  /**
+   * Returns a token that changes whenever this decorator's decorations do.  Call
+   * {@link CalendarPickerView#refreshDecorations()} after changing it.
+   */
+  long getVersion();
+
+  /**
+   * Decorates the cells of one month.  This is also called for a month the decorator no longer
+   * affects if it decorated the month's views before, so it can undo its decorations.
+   */
+  void decorate(Cells cells);
+
+  /** The cells of the month being decorated. */
+  interface Cells {
+    int getYear();
+
+    /** Returns the month, from {@link java.util.Calendar#JANUARY} onwards. */
+    int getMonth();
+
+    /** Returns the number of cells: whole weeks, including days of the months either side. */
+    int size();
+
+    int getDay(int cell);
+
+    /** Returns the state of a cell as a combination of this interface's flags. */
+    int getFlags(int cell);
+
+    RangeState getRangeState(int cell);
+
+    CalendarCellView getCellView(int cell);
+  }
+}
@@ -0,0 +1,99 @@
+package com.squareup.timessquare;
+
+import android.content.Context;
+import android.os.Build.VERSION;
+import android.os.Build.VERSION_CODES;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Month titles, like "December 2012", formatted once for each locale and shared by every picker
+ * through {@link #get}.  Unlike {@link android.text.format.DateUtils}, this never changes the
+ * default locale, so it can be called from any thread.
+ * <p>
+ * Titles are formatted from civil months (see {@link EpochDay}) in UTC, so a picker's time zone
+ * doesn't change them.
+ */
+final class MonthLabels {
+  /** A century of months in one locale, or several decades in each of a few. */
+  private static final int MAX_CACHED = 1200;
+  /** Languages whose years are shown in Latin digits when digits are forced. */
+  private static final List<String> explicitlyNumericYearLanguages = Arrays.asList("ar", "my");
+  private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+  private static final Map<List<Object>, String> cache =
+      new LinkedHashMap<List<Object>, String>(16, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<List<Object>, String> eldest) {
+          return size() > MAX_CACHED;
+        }
+      };
+  /** Formats of month and year, or of the month only and the year, by locale and digit mode. */
+  private static final Map<List<Object>, DateFormat[]> formats = new HashMap<>();
+
+  private MonthLabels() {
+    // No instances.
+  }
+
+  /**
+   * Returns the title of {@code absoluteMonth} (see {@link EpochDay}) in {@code locale}, with the
+   * year in Latin digits if {@code alwaysDigitNumbers} and the language doesn't write them.
+   */
+  static String get(Context context, Locale locale, boolean alwaysDigitNumbers,
+      int absoluteMonth) {
+    boolean digitYear =
+        alwaysDigitNumbers && explicitlyNumericYearLanguages.contains(locale.getLanguage());
+    List<Object> key = Arrays.<Object>asList(locale, digitYear, absoluteMonth);
+    synchronized (cache) {
+      String label = cache.get(key);
+      if (label == null) {
+        DateFormat[] monthFormats = getFormats(context, locale, digitYear);
+        Date date = EpochDay.toDate(EpochDay.firstDayOfMonth(absoluteMonth), UTC);
+        label = monthFormats[0].format(date);
+        if (monthFormats.length > 1) {
+          label += " " + monthFormats[1].format(date);
+        }
+        cache.put(key, label);
+      }
+      return label;
+    }
+  }
+
+  /** Returns the formats of titles in {@code locale}.  Must be called holding the cache lock. */
+  private static DateFormat[] getFormats(Context context, Locale locale, boolean digitYear) {
+    List<Object> key = Arrays.<Object>asList(locale, digitYear);
+    DateFormat[] monthFormats = formats.get(key);
+    if (monthFormats == null) {
+      if (digitYear) {
+        monthFormats = new DateFormat[] {
+            new SimpleDateFormat(context.getString(R.string.month_only_name_format), locale),
+            new SimpleDateFormat(context.getString(R.string.year_only_format), Locale.ENGLISH)
+        };
+      } else {
+        monthFormats = new DateFormat[] {
+            new SimpleDateFormat(monthYearPattern(locale), locale)
+        };
+      }
+      for (DateFormat format : monthFormats) {
+        format.setTimeZone(UTC);
+      }
+      formats.put(key, monthFormats);
+    }
+    return monthFormats;
+  }
+
+  /** Returns the pattern {@link android.text.format.DateUtils} shows a month and its year with. */
+  private static String monthYearPattern(Locale locale) {
+    if (VERSION.SDK_INT >= VERSION_CODES.JELLY_BEAN_MR2) {
+      return android.text.format.DateFormat.getBestDateTimePattern(locale, "yMMMM");
+    }
+    return "LLLL yyyy";
+  }
+}
@@ -0,0 +1,103 @@
+package com.squareup.timessquare;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The layout of one month's grid: which days it shows and where the month starts and ends in it.
+ * This depends only on the month and the first day of the week, so templates are immutable and
+ * shared by every picker through {@link #get(int, int)}.
+ * <p>
+ * The time zone isn't part of the layout: cells are civil dates (see {@link EpochDay}), and a
+ * zone only matters when a cell is converted to a {@link java.util.Date}.
+ */
+final class MonthTemplate {
+  /**
+   * A century of months, or several decades for each of a few first days of the week.  Templates
+   * are a few ints each, so even a full cache is a few tens of kilobytes.
+   */
+  private static final int MAX_CACHED = 1200;
+
+  private static final Map<Integer, MonthTemplate> cache =
+      new LinkedHashMap<Integer, MonthTemplate>(16, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<Integer, MonthTemplate> eldest) {
+          return size() > MAX_CACHED;
+        }
+      };
+
+  private final int absoluteMonth;
+  private final int firstDay;
+  private final int leadingDays;
+  private final int daysInMonth;
+  private final int daysInPreviousMonth;
+  private final int size;
+
+  /**
+   * Returns the template of {@code absoluteMonth} (see {@link EpochDay}) for weeks starting on
+   * {@code firstDayOfWeek}, from {@link java.util.Calendar#SUNDAY} onwards.
+   */
+  static MonthTemplate get(int absoluteMonth, int firstDayOfWeek) {
+    // Days of the week fit in 3 bits.
+    Integer key = absoluteMonth << 3 | firstDayOfWeek;
+    synchronized (cache) {
+      MonthTemplate template = cache.get(key);
+      if (template == null) {
+        template = new MonthTemplate(absoluteMonth, firstDayOfWeek);
+        cache.put(key, template);
+      }
+      return template;
+    }
+  }
+
+  private MonthTemplate(int absoluteMonth, int firstDayOfWeek) {
+    this.absoluteMonth = absoluteMonth;
+    int firstOfMonth = EpochDay.firstDayOfMonth(absoluteMonth);
+    int offset = firstDayOfWeek - EpochDay.dayOfWeek(firstOfMonth);
+    if (offset > 0) {
+      offset -= 7;
+    }
+    firstDay = firstOfMonth + offset;
+    leadingDays = -offset;
+    daysInMonth = EpochDay.daysInMonth(absoluteMonth);
+    daysInPreviousMonth = EpochDay.daysInMonth(absoluteMonth - 1);
+    size = (leadingDays + daysInMonth + 6) / 7 * 7;
+  }
+
+  int getAbsoluteMonth() {
+    return absoluteMonth;
+  }
+
+  /** Number of cells: whole weeks from the week of the first to the week of the last. */
+  int size() {
+    return size;
+  }
+
+  int getNumRows() {
+    return size / 7;
+  }
+
+  /** Epoch day of the first cell. */
+  int getFirstDay() {
+    return firstDay;
+  }
+
+  int getDay(int index) {
+    return firstDay + index;
+  }
+
+  boolean isCurrentMonth(int index) {
+    return index >= leadingDays && index < leadingDays + daysInMonth;
+  }
+
+  /** Returns the day of month shown in the cell. */
+  int getValue(int index) {
+    int dayOfMonth = index - leadingDays + 1;
+    if (dayOfMonth < 1) {
+      return daysInPreviousMonth + dayOfMonth;
+    }
+    if (dayOfMonth > daysInMonth) {
+      return dayOfMonth - daysInMonth;
+    }
+    return dayOfMonth;
+  }
+}
@@ -16,7 +16,6 @@ import android.widget.TextView;
 import androidx.core.view.ViewCompat;
 
 import java.text.DateFormat;
-import java.text.NumberFormat;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
@@ -28,9 +27,22 @@ public class MonthView extends LinearLayout {
   View dayNamesHeaderRowView;
   private Listener listener;
   private List<CalendarCellDecorator> decorators;
+  private List<MonthDecorator> monthDecorators;
+  private final DecoratedCells decoratedCells = new DecoratedCells();
+  /** What the cells were last bound to, so a month isn't bound again when nothing changed. */
+  private MonthCells boundCells;
+  private long boundVersion;
+  private boolean boundDisplayOnly;
+  /** Version of each month decorator when it last ran, and whether it decorated these cells. */
+  private long[] decoratedVersions;
+  private boolean[] decorated;
   private boolean isRtl;
-  private Locale locale;
-  private boolean alwaysDigitNumbers;
+  private DayLabels labels;
+  /** Typefaces before a picker set its own, put back when the view is recycled. */
+  private Typeface defaultTitleTypeface;
+  private Typeface defaultHeaderTypeface;
+  private Typeface defaultDateTypeface;
+  private boolean typefacesChanged;
 
   public static MonthView create(ViewGroup parent, LayoutInflater inflater,
       DateFormat weekdayNameFormat, Listener listener, Calendar today, int dividerColor,
@@ -68,19 +80,15 @@ public class MonthView extends LinearLayout {
     }
 
     view.isRtl = getLayoutDirectionFromLocale(locale) == ViewCompat.LAYOUT_DIRECTION_RTL;
-    view.locale = locale;
-    view.alwaysDigitNumbers = showAlwaysDigitNumbers;
-    int firstDayOfWeek = today.getFirstDayOfWeek();
+    view.labels = DayLabels.get(locale, showAlwaysDigitNumbers, weekdayNameFormat,
+        today.getFirstDayOfWeek());
     final CalendarRowView headerRow = (CalendarRowView) view.grid.getChildAt(0);
 
     if (displayDayNamesHeaderRowView) {
-      final int originalDayOfWeek = today.get(Calendar.DAY_OF_WEEK);
       for (int offset = 0; offset < 7; offset++) {
-        today.set(Calendar.DAY_OF_WEEK, getDayOfWeek(firstDayOfWeek, offset, view.isRtl));
         final TextView textView = (TextView) headerRow.getChildAt(offset);
-        textView.setText(weekdayNameFormat.format(today.getTime()));
+        textView.setText(view.labels.getWeekdayName(offset));
       }
-      today.set(Calendar.DAY_OF_WEEK, originalDayOfWeek);
     } else {
       view.dayNamesHeaderRowView.setVisibility(View.GONE);
     }
@@ -90,68 +98,142 @@ public class MonthView extends LinearLayout {
     return view;
   }
 
-  private static int getDayOfWeek(int firstDayOfWeek, int offset, boolean isRtl) {
-    int dayOfWeek = firstDayOfWeek + offset;
-    if (isRtl) {
-      return 8 - dayOfWeek;
-    }
-    return dayOfWeek;
-  }
-
   public MonthView(Context context, AttributeSet attrs) {
     super(context, attrs);
   }
 
   public void setDecorators(List<CalendarCellDecorator> decorators) {
-    this.decorators = decorators;
+    if (this.decorators != decorators) {
+      this.decorators = decorators;
+      // Bind the cells again to undo what the old decorators did.
+      boundCells = null;
+    }
   }
 
   public List<CalendarCellDecorator> getDecorators() {
     return decorators;
   }
 
-  public void init(MonthDescriptor month, List<List<MonthCellDescriptor>> cells,
-      boolean displayOnly, Typeface titleTypeface, Typeface dateTypeface) {
+  public void setMonthDecorators(List<MonthDecorator> monthDecorators) {
+    if (this.monthDecorators != monthDecorators) {
+      this.monthDecorators = monthDecorators;
+      decoratedVersions = null;
+      decorated = null;
+      boundCells = null;
+    }
+  }
+
+  public List<MonthDecorator> getMonthDecorators() {
+    return monthDecorators;
+  }
+
+  /** @see CalendarGridView#setMeasureCache */
+  void setMeasureCache(CalendarGridView.MeasureCache cache) {
+    grid.setMeasureCache(cache);
+  }
+
+  void setListener(Listener listener) {
+    this.listener = listener;
+  }
+
+  /** Lets go of the picker this view showed a month of, as it's put in a {@link MonthViewPool}. */
+  void recycle() {
+    listener = null;
+    for (int i = 1; i <= 6; i++) {
+      ((CalendarRowView) grid.getChildAt(i)).setListener(null);
+    }
+    setDecorators(null);
+    setMonthDecorators(null);
+    decoratedCells.cells = null;
+    boundCells = null;
+    if (typefacesChanged) {
+      // The next picker may not set typefaces, and only sets those it has.
+      title.setTypeface(defaultTitleTypeface);
+      headerRow().setTypeface(defaultHeaderTypeface);
+      for (int i = 0; i < 6; i++) {
+        weekRow(i).setTypeface(defaultDateTypeface);
+      }
+      typefacesChanged = false;
+    }
+  }
+
+  private CalendarRowView headerRow() {
+    return (CalendarRowView) grid.getChildAt(0);
+  }
+
+  private CalendarRowView weekRow(int week) {
+    return (CalendarRowView) grid.getChildAt(week + 1);
+  }
+
+  public void init(MonthDescriptor month, MonthCells cells, boolean displayOnly,
+      Typeface titleTypeface, Typeface dateTypeface) {
     Logr.d("Initializing MonthView (%d) for %s", System.identityHashCode(this), month);
     long start = System.currentTimeMillis();
     title.setText(month.getLabel());
-    NumberFormat numberFormatter;
-    if (alwaysDigitNumbers) {
-      numberFormatter = NumberFormat.getInstance(Locale.US);
-    } else {
-      numberFormatter = NumberFormat.getInstance(locale);
+    setCells(cells, displayOnly);
+
+    if (!typefacesChanged && (titleTypeface != null || dateTypeface != null)) {
+      defaultTitleTypeface = title.getTypeface();
+      defaultHeaderTypeface = ((TextView) headerRow().getChildAt(0)).getTypeface();
+      defaultDateTypeface =
+          ((CalendarCellView) weekRow(0).getChildAt(0)).getDayOfMonthTextView().getTypeface();
+      typefacesChanged = true;
+    }
+    if (titleTypeface != null) {
+      title.setTypeface(titleTypeface);
     }
+    if (dateTypeface != null) {
+      grid.setTypeface(dateTypeface);
+    }
+
+    Logr.d("MonthView.init took %d ms", System.currentTimeMillis() - start);
+  }
 
-    final int numRows = cells.size();
-    grid.setNumRows(numRows);
+  /** Shows {@code cells} of the month this view already shows, leaving its title alone. */
+  void setCells(MonthCells cells, boolean displayOnly) {
+    // Cell decorators may change anything, so they're run on every bind.
+    boolean changed = cells != boundCells || cells.getVersion() != boundVersion
+        || displayOnly != boundDisplayOnly || (decorators != null && !decorators.isEmpty());
+    if (changed) {
+      bindCells(cells, displayOnly);
+      boundCells = cells;
+      boundVersion = cells.getVersion();
+      boundDisplayOnly = displayOnly;
+    }
+    decorateMonth(cells, changed);
+  }
+
+  private void bindCells(MonthCells cells, boolean displayOnly) {
+    final int numRows = cells.getNumRows();
     for (int i = 0; i < 6; i++) {
       CalendarRowView weekRow = (CalendarRowView) grid.getChildAt(i + 1);
       weekRow.setListener(listener);
       if (i < numRows) {
         weekRow.setVisibility(VISIBLE);
-        List<MonthCellDescriptor> week = cells.get(i);
-        for (int c = 0; c < week.size(); c++) {
-          MonthCellDescriptor cell = week.get(isRtl ? 6 - c : c);
+        for (int c = 0; c < 7; c++) {
+          int cell = i * 7 + (isRtl ? 6 - c : c);
           CalendarCellView cellView = (CalendarCellView) weekRow.getChildAt(c);
 
-          String cellDate = numberFormatter.format(cell.getValue());
+          String cellDate = labels.getDayNumber(cells.getValue(cell));
           if (!cellView.getDayOfMonthTextView().getText().equals(cellDate)) {
             cellView.getDayOfMonthTextView().setText(cellDate);
           }
-          cellView.setEnabled(cell.isCurrentMonth());
+          cellView.setEnabled(cells.isCurrentMonth(cell));
           cellView.setClickable(!displayOnly);
 
-          cellView.setSelectable(cell.isSelectable());
-          cellView.setSelected(cell.isSelected());
-          cellView.setCurrentMonth(cell.isCurrentMonth());
-          cellView.setToday(cell.isToday());
-          cellView.setRangeState(cell.getRangeState());
-          cellView.setHighlighted(cell.isHighlighted());
-          cellView.setTag(cell);
+          boolean isPending = cells.isPending(cell);
+          cellView.setSelectable(cells.isSelectable(cell) && !isPending);
+          cellView.setPending(isPending);
+          cellView.setSelected(cells.isSelected(cell));
+          cellView.setCurrentMonth(cells.isCurrentMonth(cell));
+          cellView.setToday(cells.isToday(cell));
+          cellView.setRangeState(cells.getRangeState(cell));
+          cellView.setHighlighted(cells.isHighlighted(cell));
+          cellView.setTag(cells.getCell(cell));
 
           if (null != decorators) {
             for (CalendarCellDecorator decorator : decorators) {
-              decorator.decorate(cellView, cell.getDate());
+              decorator.decorate(cellView, cells.getDate(cell));
             }
           }
         }
@@ -159,15 +241,36 @@ public class MonthView extends LinearLayout {
         weekRow.setVisibility(GONE);
       }
     }
+  }
 
-    if (titleTypeface != null) {
-      title.setTypeface(titleTypeface);
+  /**
+   * Runs the month decorators that affect the month, or decorated these views before, unless
+   * neither the cells nor the decorator changed since it last ran.
+   */
+  private void decorateMonth(MonthCells cells, boolean changed) {
+    if (monthDecorators == null || monthDecorators.isEmpty()) {
+      return;
     }
-    if (dateTypeface != null) {
-      grid.setTypeface(dateTypeface);
+    if (decoratedVersions == null) {
+      decoratedVersions = new long[monthDecorators.size()];
+      decorated = new boolean[monthDecorators.size()];
+      changed = true;
+    }
+    decoratedCells.cells = cells;
+    int firstDay = cells.getDay(0);
+    int lastDay = cells.getDay(cells.size() - 1);
+    for (int i = 0; i < monthDecorators.size(); i++) {
+      MonthDecorator decorator = monthDecorators.get(i);
+      long version = decorator.getVersion();
+      if (changed || version != decoratedVersions[i]) {
+        boolean affects = decorator.affects(firstDay, lastDay);
+        if (affects || decorated[i]) {
+          decorator.decorate(decoratedCells);
+        }
+        decorated[i] = affects;
+        decoratedVersions[i] = version;
+      }
     }
-
-    Logr.d("MonthView.init took %d ms", System.currentTimeMillis() - start);
   }
 
   public void setDividerColor(int color) {
@@ -197,4 +300,58 @@ public class MonthView extends LinearLayout {
   public interface Listener {
     void handleClick(MonthCellDescriptor cell);
   }
+
+  /** The cells being bound, as {@link MonthDecorator}s see them. */
+  private final class DecoratedCells implements MonthDecorator.Cells {
+    MonthCells cells;
+
+    @Override public int getYear() {
+      return EpochDay.year(cells.getTemplate().getAbsoluteMonth());
+    }
+
+    @Override public int getMonth() {
+      return EpochDay.month(cells.getTemplate().getAbsoluteMonth());
+    }
+
+    @Override public int size() {
+      return cells.size();
+    }
+
+    @Override public int getDay(int cell) {
+      return cells.getDay(cell);
+    }
+
+    @Override public int getFlags(int cell) {
+      int flags = 0;
+      if (cells.isCurrentMonth(cell)) {
+        flags |= MonthDecorator.CURRENT_MONTH;
+      }
+      if (cells.isSelectable(cell)) {
+        flags |= MonthDecorator.SELECTABLE;
+      }
+      if (cells.isSelected(cell)) {
+        flags |= MonthDecorator.SELECTED;
+      }
+      if (cells.isToday(cell)) {
+        flags |= MonthDecorator.TODAY;
+      }
+      if (cells.isHighlighted(cell)) {
+        flags |= MonthDecorator.HIGHLIGHTED;
+      }
+      if (cells.isPending(cell)) {
+        flags |= MonthDecorator.PENDING;
+      }
+      return flags;
+    }
+
+    @Override public RangeState getRangeState(int cell) {
+      return cells.getRangeState(cell);
+    }
+
+    @Override public CalendarCellView getCellView(int cell) {
+      int column = cell % 7;
+      CalendarRowView weekRow = (CalendarRowView) grid.getChildAt(cell / 7 + 1);
+      return (CalendarCellView) weekRow.getChildAt(isRtl ? 6 - column : column);
+    }
+  }
 }
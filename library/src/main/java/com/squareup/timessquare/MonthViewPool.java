@@ -0,0 +1,77 @@
+package com.squareup.timessquare;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A bounded pool of {@link MonthView}s shared by pickers.  A {@link CalendarPickerView} using a
+ * pool gives its month views back when it's detached from its window and takes views from the
+ * pool before inflating new ones, so a picker dialog that's opened again, or several pickers shown
+ * together, reuse views instead of each inflating their own.
+ * <p>
+ * A view is only reused by a picker with the same context, styling, locale and
+ * {@link DayViewAdapter} class as the picker that created it.  Pools must only be used on the main
+ * thread, and hold views of the pickers' context: keep a pool with that context, eg. in an
+ * activity, rather than statically.
+ *
+ * @see CalendarPickerView#setMonthViewPool(MonthViewPool)
+ */
+public final class MonthViewPool {
+  private final int maxSize;
+  private final Map<Object, ArrayDeque<MonthView>> views = new HashMap<>();
+  private int size;
+
+  /** @param maxSize Most views kept.  A month view has about 60 child views. */
+  public MonthViewPool(int maxSize) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("maxSize < 0: " + maxSize);
+    }
+    this.maxSize = maxSize;
+  }
+
+  /** Returns the number of views in the pool. */
+  public int size() {
+    return size;
+  }
+
+  /** Drops every view in the pool. */
+  public void clear() {
+    views.clear();
+    size = 0;
+  }
+
+  /** Returns a view created for pickers with {@code key}, or null if there's none. */
+  MonthView acquire(Object key) {
+    ArrayDeque<MonthView> keyViews = views.get(key);
+    if (keyViews == null) {
+      return null;
+    }
+    MonthView view = keyViews.pop();
+    if (keyViews.isEmpty()) {
+      views.remove(key);
+    }
+    size--;
+    return view;
+  }
+
+  /**
+   * Adds {@code view}, which must not have a parent, unless the pool is full.  Returns whether it
+   * was added.
+   */
+  boolean release(MonthView view) {
+    Object key = view.getTag(R.id.month_view_pool_key);
+    if (key == null || size >= maxSize) {
+      return false;
+    }
+    ArrayDeque<MonthView> keyViews = views.get(key);
+    if (keyViews == null) {
+      keyViews = new ArrayDeque<>();
+      views.put(key, keyViews);
+    }
+    view.recycle();
+    keyViews.push(view);
+    size++;
+    return true;
+  }
+}
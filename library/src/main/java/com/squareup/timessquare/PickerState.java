@@ -0,0 +1,20 @@
+package com.squareup.timessquare;
+
+import java.util.TimeZone;
+
+/**
+ * The state of one picker that its months show on top of their shared {@link MonthTemplate}s.
+ * Cells look their selection, highlight and range state up here when they're bound instead of
+ * keeping a copy, so a month costs the same however many days are selected.
+ */
+final class PickerState {
+  final DaySet selectedDays = new DaySet();
+  final DaySet highlightedDays = new DaySet();
+  /** The selected range in RANGE mode, once both of its ends are chosen. */
+  final DayRange range = new DayRange();
+  TimeZone timeZone = TimeZone.getDefault();
+  /** Epoch day of today. */
+  int today;
+  /** Changes whenever the months may have to be bound again. */
+  int version;
+}
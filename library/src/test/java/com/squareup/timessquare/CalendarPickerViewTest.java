@@ -2,15 +2,26 @@
 package com.squareup.timessquare;
 
 import android.app.Activity;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.os.Looper;
+import android.view.MotionEvent;
+import android.view.View;
 import android.widget.TextView;
+import androidx.recyclerview.widget.RecyclerView;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.Executor;
 
 import org.intellij.lang.annotations.MagicConstant;
 import org.junit.Before;
@@ -30,6 +41,10 @@ import static com.squareup.timessquare.RangeState.LAST;
 import static com.squareup.timessquare.RangeState.MIDDLE;
 import static com.squareup.timessquare.RangeState.NONE;
 import static org.junit.Assert.fail;
+import static android.view.View.MeasureSpec.EXACTLY;
+import static android.view.View.MeasureSpec.UNSPECIFIED;
+import static android.view.View.MeasureSpec.makeMeasureSpec;
+import static org.robolectric.Shadows.shadowOf;
 import static java.util.Calendar.APRIL;
 import static java.util.Calendar.AUGUST;
 import static java.util.Calendar.DATE;
@@ -37,6 +52,7 @@ import static java.util.Calendar.DAY_OF_MONTH;
 import static java.util.Calendar.DAY_OF_WEEK;
 import static java.util.Calendar.DECEMBER;
 import static java.util.Calendar.FEBRUARY;
+import static java.util.Calendar.HOUR_OF_DAY;
 import static java.util.Calendar.JANUARY;
 import static java.util.Calendar.JULY;
 import static java.util.Calendar.JUNE;
@@ -114,9 +130,417 @@ public class CalendarPickerViewTest {
     assertThat(view.months).hasSize(12);
   }
 
+  @Test public void testLazyMonthCellsAreBuiltOnDemand() {
+    view.setLazyMonthCells(true);
+    view.init(minDate, maxDate, timeZone, locale) //
+        .inMode(RANGE);
+    assertThat(view.months).hasSize(13);
+    assertThat(view.cells.size()).isEqualTo(0);
+
+    Calendar nov30 = buildCal(2012, NOVEMBER, 30);
+    Calendar dec2 = buildCal(2012, DECEMBER, 2);
+    view.selectDate(nov30.getTime());
+    view.selectDate(dec2.getTime());
+    assertThat(view.cells.size()).isEqualTo(2);
+    assertThat(view.getSelectedDates()).hasSize(3);
+
+    MonthCells cells = view.getMonthCells(1);
+    assertCell(cells, 0, 6, 1, true, true, false, true, MIDDLE);
+    assertCell(cells, 1, 0, 2, true, true, false, true, LAST);
+  }
+
+  @Test public void testLongRangeOnlyBuildsItsEnds() {
+    view.setLazyMonthCells(true);
+    view.init(minDate, maxDate, timeZone, locale) //
+        .inMode(RANGE);
+    Calendar nov20 = buildCal(2012, NOVEMBER, 20);
+    Calendar oct10 = buildCal(2013, OCTOBER, 10);
+    view.selectDate(nov20.getTime());
+    view.selectDate(oct10.getTime());
+    assertThat(view.cells.size()).isEqualTo(2);
+
+    List<Date> selectedDates = view.getSelectedDates();
+    assertThat(selectedDates).hasSize(325);
+    assertThat(selectedDates.get(0)).isEqualTo(nov20.getTime());
+    assertThat(selectedDates.get(324)).isEqualTo(oct10.getTime());
+
+    // The dates are the caller's to change.
+    Collections.reverse(selectedDates);
+    selectedDates.remove(0);
+    selectedDates.add(nov20.getTime());
+    assertThat(selectedDates).hasSize(325);
+    assertThat(selectedDates.get(323)).isEqualTo(nov20.getTime());
+    assertThat(view.getSelectedDates().get(324)).isEqualTo(oct10.getTime());
+
+    // Months in the middle of the range show it once they're built.
+    assertThat(getCell(5, 15).isSelected()).isTrue();
+    assertThat(getCell(5, 15).getRangeState()).isEqualTo(MIDDLE);
+  }
+
+  @Test public void testMonthCellsBuiltOnExecutor() {
+    final List<Runnable> tasks = new ArrayList<>();
+    view.setMonthCellsExecutor(new Executor() {
+      @Override public void execute(Runnable command) {
+        tasks.add(command);
+      }
+    });
+    view.init(minDate, maxDate, timeZone, locale);
+    assertThat(view.cells.size()).isEqualTo(0);
+    assertThat(tasks).hasSize(1);
+
+    // Selecting a date builds its month right away.
+    view.selectDate(buildCal(2012, NOVEMBER, 20).getTime());
+    MonthCells selectedMonth = view.getMonthCells(0);
+    assertThat(view.cells.size()).isEqualTo(1);
+
+    tasks.get(0).run();
+    shadowOf(Looper.getMainLooper()).idle();
+    assertThat(view.cells.size()).isEqualTo(view.months.size());
+    assertThat(view.getMonthCells(0)).isSameInstanceAs(selectedMonth);
+    // November 20th 2013 is after maxDate.
+    assertThat(view.getMonthCells(12).isSelectable(5 + 19)).isFalse();
+    assertThat(getCell(1, 15).isSelectable()).isTrue();
+  }
+
+  @Test public void testSetDateRangeKeepsMonthsAndSelection() {
+    view.init(minDate, maxDate, timeZone, locale) //
+        .inMode(MULTIPLE);
+    Calendar nov20 = buildCal(2012, NOVEMBER, 20);
+    Calendar mar5 = buildCal(2013, MARCH, 5);
+    view.selectDate(nov20.getTime());
+    view.selectDate(mar5.getTime());
+    MonthCells march = view.getMonthCells(4);
+    MonthDescriptor marchMonth = view.months.get(4);
+
+    // Move the range a month later.
+    view.setDateRange(buildCal(2012, DECEMBER, 16).getTime(),
+        buildCal(2013, DECEMBER, 16).getTime());
+    assertThat(view.months).hasSize(13);
+    assertThat(view.months.get(0).getMonth()).isEqualTo(DECEMBER);
+    assertThat(view.getMonthCells(3)).isSameInstanceAs(march);
+    assertThat(view.months.get(3)).isSameInstanceAs(marchMonth);
+    assertThat(view.getSelectedDates()).containsExactly(mar5.getTime());
+
+    // The ends of the old and the new range change which of their days can be selected.
+    assertThat(getCell(0, 15).isSelectable()).isFalse();
+    assertThat(getCell(0, 16).isSelectable()).isTrue();
+    assertThat(getCell(11, 20).isSelectable()).isTrue();
+    assertThat(getCell(12, 15).isSelectable()).isTrue();
+    assertThat(getCell(12, 16).isSelectable()).isFalse();
+  }
+
+  @Test public void testUnboundedPagesMonthsInAndOut() {
+    view.initUnbounded(today.getTime(), timeZone, locale) //
+        .inMode(MULTIPLE);
+    assertThat(view.months).hasSize(25);
+    assertThat(view.months.get(12).getYear()).isEqualTo(2012);
+    assertThat(view.months.get(12).getMonth()).isEqualTo(NOVEMBER);
+    Calendar nov20 = buildCal(2012, NOVEMBER, 20);
+    view.selectDate(nov20.getTime());
+
+    // Nearing the end pages in another year, then pages out the oldest months.
+    view.pageMonths(24);
+    assertThat(view.months).hasSize(37);
+    view.pageMonths(36);
+    view.pageMonths(36);
+    assertThat(view.months).hasSize(37);
+    assertThat(view.months.get(0).getYear()).isEqualTo(2013);
+    assertThat(view.cells.size() <= 37).isTrue();
+    assertThat(view.getSelectedDates()).containsExactly(nov20.getTime());
+
+    // Dates anywhere can be selected, and their months are paged in.
+    Calendar longAgo = buildCal(1990, MARCH, 1);
+    assertThat(view.selectDate(longAgo.getTime())).isTrue();
+    assertThat(view.months.get(12).getYear()).isEqualTo(1990);
+    assertThat(view.getSelectedDates()).containsExactly(longAgo.getTime(), nov20.getTime())
+        .inOrder();
+    assertThat(view.scrollToDate(nov20.getTime())).isTrue();
+    assertThat(getCell(12, 20).isSelected()).isTrue();
+  }
+
+  @Test public void testPickersShareMonthTemplates() {
+    CalendarPickerView other = new CalendarPickerView(activity, null);
+    other.init(minDate, maxDate, TimeZone.getTimeZone("GMT-08:00"), locale);
+    assertThat(other.getMonthCells(3).getTemplate()).isSameInstanceAs(
+        view.getMonthCells(3).getTemplate());
+    assertThat(other.getMonthCells(3)).isNotSameInstanceAs(view.getMonthCells(3));
+
+    // Weeks starting on another day need another layout.
+    other.init(minDate, maxDate, timeZone, Locale.FRANCE);
+    assertThat(other.getMonthCells(3).getTemplate()).isNotSameInstanceAs(
+        view.getMonthCells(3).getTemplate());
+  }
+
+  @Test public void testCellsFollowPickerState() {
+    view.init(minDate, maxDate, timeZone, locale).inMode(MULTIPLE);
+    MonthCellDescriptor cell = view.getMonthCells(0).getCell(3 * 7 + 2);
+    assertThat(cell.isSelected()).isFalse();
+
+    view.selectDate(buildCal(2012, NOVEMBER, 20).getTime());
+    assertThat(cell.isSelected()).isTrue();
+    view.highlightDates(Arrays.asList(buildCal(2012, NOVEMBER, 20).getTime()));
+    assertThat(cell.isHighlighted()).isTrue();
+
+    view.clearSelectedDates();
+    view.clearHighlightedDates();
+    assertThat(cell.isSelected()).isFalse();
+    assertThat(cell.isHighlighted()).isFalse();
+  }
+
+  @Test public void testSelectingOnlyChangesTheMonthsShowingIt() {
+    long november = view.getMonthCells(0).getVersion();
+    long december = view.getMonthCells(1).getVersion();
+    long january = view.getMonthCells(2).getVersion();
+
+    // Unselects November 16th.
+    view.selectDate(buildCal(2012, DECEMBER, 12).getTime());
+    assertThat(view.getMonthCells(0).getVersion()).isNotEqualTo(november);
+    assertThat(view.getMonthCells(1).getVersion()).isNotEqualTo(december);
+    assertThat(view.getMonthCells(2).getVersion()).isEqualTo(january);
+
+    // December's last week shows January 4th.
+    december = view.getMonthCells(1).getVersion();
+    view.highlightDates(Arrays.asList(buildCal(2013, JANUARY, 4).getTime()));
+    assertThat(view.getMonthCells(1).getVersion()).isNotEqualTo(december);
+    assertThat(view.getMonthCells(2).getVersion()).isNotEqualTo(january);
+  }
+
+  @Test public void testRecyclerViewSendsChangedMonthsAsPayloads() {
+    CalendarRecyclerView recycler = new CalendarRecyclerView(activity, null);
+    recycler.init(minDate, maxDate, timeZone, locale) //
+        .inMode(SINGLE) //
+        .withSelectedDate(minDate);
+    RecyclerView.Adapter<?> adapter = recycler.getAdapter();
+    assertThat(adapter.getItemCount()).isEqualTo(13);
+    assertThat(adapter.hasStableIds()).isTrue();
+
+    final List<int[]> changes = new ArrayList<>();
+    adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+      @Override public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+        assertThat(payload).isSameInstanceAs(CalendarRecyclerView.PAYLOAD_CELLS);
+        changes.add(new int[] {positionStart, itemCount});
+      }
+    });
+    // Unselects November 16th: only November and December change.
+    recycler.selectDate(buildCal(2012, DECEMBER, 12).getTime());
+    assertThat(changes).hasSize(1);
+    assertThat(changes.get(0)[0]).isEqualTo(0);
+    assertThat(changes.get(0)[1]).isEqualTo(2);
+    assertThat(recycler.getSelectedDate()).isEqualTo(buildCal(2012, DECEMBER, 12).getTime());
+
+    // Months keep their ids as the range moves.
+    long december = adapter.getItemId(1);
+    recycler.setDateRange(buildCal(2012, DECEMBER, 1).getTime(), maxDate);
+    assertThat(adapter.getItemId(0)).isEqualTo(december);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test public void testRecyclerViewBindsOnlyCellsWithPayload() {
+    CalendarRecyclerView recycler = new CalendarRecyclerView(activity, null);
+    recycler.init(minDate, maxDate, timeZone, locale) //
+        .inMode(SINGLE) //
+        .withSelectedDate(minDate);
+    RecyclerView.Adapter<RecyclerView.ViewHolder> adapter =
+        (RecyclerView.Adapter<RecyclerView.ViewHolder>) recycler.getAdapter();
+    RecyclerView.ViewHolder holder = adapter.onCreateViewHolder(recycler, 0);
+    adapter.onBindViewHolder(holder, 1, Collections.emptyList());
+    MonthView monthView = (MonthView) holder.itemView;
+    assertThat(monthView.title.getText().toString()).isEqualTo("December 2012");
+    CalendarCellView cell = (CalendarCellView) ((CalendarRowView) monthView.grid.getChildAt(3)).getChildAt(3);
+    assertThat(cell.isSelected()).isFalse();
+
+    monthView.title.setText("");
+    recycler.selectDate(buildCal(2012, DECEMBER, 12).getTime());
+    adapter.onBindViewHolder(holder, 1,
+        Collections.<Object>singletonList(CalendarRecyclerView.PAYLOAD_CELLS));
+    assertThat(cell.isSelected()).isTrue();
+    assertThat(monthView.title.getText().toString()).isEqualTo("");
+  }
+
+  @Test public void testRecyclerViewBuildsMonthsLazily() {
+    CalendarRecyclerView recycler = new CalendarRecyclerView(activity, null);
+    recycler.setLazyMonthCells(true);
+    recycler.init(minDate, maxDate, timeZone, locale);
+    assertThat(recycler.picker.cells.size()).isEqualTo(0);
+  }
+
+  @Test public void testMonthViewPoolSharesViewsBetweenCompatiblePickers() {
+    MonthViewPool pool = new MonthViewPool(1);
+    view.setMonthViewPool(pool);
+    MonthView monthView = view.createMonthView(view);
+    MonthView secondMonthView = view.createMonthView(view);
+    assertThat(pool.release(monthView)).isTrue();
+    // Full.
+    assertThat(pool.release(secondMonthView)).isFalse();
+
+    CalendarPickerView other = new CalendarPickerView(activity, null);
+    other.init(minDate, maxDate, timeZone, Locale.FRANCE);
+    other.setMonthViewPool(pool);
+    assertThat(other.createMonthView(other)).isNotSameInstanceAs(monthView);
+    assertThat(pool.size()).isEqualTo(1);
+
+    other.init(minDate, maxDate, timeZone, locale);
+    assertThat(other.createMonthView(other)).isSameInstanceAs(monthView);
+    assertThat(pool.size()).isEqualTo(0);
+  }
+
+  @Test public void testFixedMonthGeometryMakesWeeksSquare() {
+    view.setFixedMonthGeometry(true);
+    MonthView monthView = (MonthView) view.getAdapter().getView(1, null, null);
+    monthView.grid.measure(makeMeasureSpec(700, EXACTLY), makeMeasureSpec(0, UNSPECIFIED));
+    View header = monthView.grid.getChildAt(0);
+    // December 2012 has six weeks.
+    assertThat(monthView.grid.getMeasuredHeight()).isEqualTo(header.getMeasuredHeight() + 600);
+    for (int i = 1; i <= 6; i++) {
+      assertThat(monthView.grid.getChildAt(i).getMeasuredHeight()).isEqualTo(100);
+    }
+
+    // Other month views share the header's height.
+    MonthView otherMonthView = (MonthView) view.getAdapter().getView(2, null, null);
+    otherMonthView.grid.measure(makeMeasureSpec(700, EXACTLY), makeMeasureSpec(0, UNSPECIFIED));
+    assertThat(otherMonthView.grid.getChildAt(0).getMeasuredHeight())
+        .isEqualTo(header.getMeasuredHeight());
+    // January 2013 has five.
+    assertThat(otherMonthView.grid.getMeasuredHeight())
+        .isEqualTo(header.getMeasuredHeight() + 500);
+  }
+
+  @Test public void testGridDrawsItsDividersInOneCall() {
+    final List<Integer> drawn = new ArrayList<>();
+    Canvas canvas = new Canvas() {
+      @Override public void drawLine(float startX, float startY, float stopX, float stopY,
+          Paint paint) {
+        fail("Dividers should be drawn together");
+      }
+
+      @Override public void drawLines(float[] pts, int offset, int count, Paint paint) {
+        drawn.add(count);
+      }
+    };
+    MonthView monthView = (MonthView) view.getAdapter().getView(1, null, null);
+    monthView.grid.measure(makeMeasureSpec(700, EXACTLY), makeMeasureSpec(0, UNSPECIFIED));
+    monthView.grid.layout(0, 0, 702, monthView.grid.getMeasuredHeight());
+    monthView.grid.dispatchDraw(canvas);
+    monthView.grid.dispatchDraw(canvas);
+    // The header and six weeks, and a line on either side of each day.
+    assertThat(drawn).containsExactly(4 * (7 + 8), 4 * (7 + 8));
+
+    // January 2013 has five weeks.
+    view.getAdapter().getView(2, monthView, null);
+    monthView.grid.measure(makeMeasureSpec(700, EXACTLY), makeMeasureSpec(0, UNSPECIFIED));
+    monthView.grid.layout(0, 0, 702, monthView.grid.getMeasuredHeight());
+    drawn.clear();
+    monthView.grid.dispatchDraw(canvas);
+    assertThat(drawn).containsExactly(4 * (6 + 8));
+  }
+
+  @Test public void testPooledMonthViewsDropThePreviousPickersTypefaces() {
+    MonthViewPool pool = new MonthViewPool(1);
+    view.setMonthViewPool(pool);
+    MonthView monthView = view.createMonthView(view);
+    CalendarCellView cell = (CalendarCellView) ((CalendarRowView) monthView.grid.getChildAt(1))
+        .getChildAt(0);
+    Typeface titleTypeface = monthView.title.getTypeface();
+    Typeface dateTypeface = cell.getDayOfMonthTextView().getTypeface();
+    Typeface italic = Typeface.create(Typeface.DEFAULT, Typeface.ITALIC);
+    view.setTypeface(italic);
+    view.bindMonthView(monthView, 1);
+    assertThat(monthView.title.getTypeface()).isSameInstanceAs(italic);
+    assertThat(cell.getDayOfMonthTextView().getTypeface()).isSameInstanceAs(italic);
+    assertThat(pool.release(monthView)).isTrue();
+
+    // A picker without typefaces gets the view as it was inflated.
+    CalendarPickerView other = new CalendarPickerView(activity, null);
+    other.init(minDate, maxDate, timeZone, locale);
+    other.setMonthViewPool(pool);
+    assertThat(other.createMonthView(other)).isSameInstanceAs(monthView);
+    other.bindMonthView(monthView, 1);
+    assertThat(monthView.title.getTypeface()).isSameInstanceAs(titleTypeface);
+    assertThat(cell.getDayOfMonthTextView().getTypeface()).isSameInstanceAs(dateTypeface);
+  }
+
+  @Test public void testRecyclerViewCreatesMonthViewsFromThePool() {
+    MonthViewPool pool = new MonthViewPool(4);
+    CalendarRecyclerView recycler = new CalendarRecyclerView(activity, null);
+    recycler.setMonthViewPool(pool);
+    recycler.init(minDate, maxDate, timeZone, locale);
+    MonthView monthView = recycler.picker.createMonthView(recycler);
+    assertThat(pool.release(monthView)).isTrue();
+    assertThat(recycler.picker.newMonthView(recycler)).isSameInstanceAs(monthView);
+    recycler.prewarm(2);
+    assertThat(pool.size()).isEqualTo(2);
+
+    // Its views are given to the pool when it's detached, and created again when it's attached.
+    recycler.onDetachedFromWindow();
+    assertThat(recycler.getAdapter()).isNull();
+    recycler.onAttachedToWindow();
+    assertThat(recycler.getAdapter()).isNotNull();
+  }
+
+  @Test public void testPrewarmBuildsMonthsAndFillsThePool() {
+    view.setLazyMonthCells(true);
+    view.init(minDate, maxDate, timeZone, locale) //
+        .withSelectedDate(buildCal(2013, MAY, 5).getTime());
+    MonthViewPool pool = new MonthViewPool(4);
+    view.setMonthViewPool(pool);
+    view.prewarm(3);
+    // April, May and June.
+    assertThat(view.cells.size()).isEqualTo(3);
+    assertThat(view.cells.get(5)).isNotNull();
+    assertThat(view.months.get(6).getLabel()).isNotNull();
+    assertThat(pool.size()).isEqualTo(3);
+
+    CalendarPickerView other = new CalendarPickerView(activity, null);
+    other.init(minDate, maxDate, timeZone, locale);
+    other.setMonthViewPool(pool);
+    other.createMonthView(other);
+    assertThat(pool.size()).isEqualTo(2);
+  }
+
+  @Test public void testCanvasMonthsHitTestCells() {
+    view.setCanvasMonths(true);
+    view.init(minDate, maxDate, timeZone, locale);
+    View monthView = view.getAdapter().getView(1, null, view);
+    assertThat(monthView).isInstanceOf(CanvasMonthView.class);
+    CanvasMonthView december = (CanvasMonthView) monthView;
+    december.measure(makeMeasureSpec(700, EXACTLY), makeMeasureSpec(0, UNSPECIFIED));
+
+    // December 2012 shows six weeks from November 25th: its bottom row is the week of January 1st.
+    int bottom = december.getMeasuredHeight();
+    assertThat(december.cellAt(350, bottom - 50)).isEqualTo(5 * 7 + 3);
+    assertThat(december.cellAt(699, bottom - 150)).isEqualTo(4 * 7 + 6);
+    assertThat(december.cellAt(350, bottom + 1)).isEqualTo(-1);
+    assertThat(view.getAdapter().getView(2, december, view)).isSameInstanceAs(december);
+  }
+
+  @Test public void testCanvasMonthsClickTappedCells() {
+    view.setCanvasMonths(true);
+    view.init(minDate, maxDate, timeZone, locale);
+    CanvasMonthView december = (CanvasMonthView) view.getAdapter().getView(1, null, view);
+    december.measure(makeMeasureSpec(700, EXACTLY), makeMeasureSpec(0, UNSPECIFIED));
+    // Wednesday of the second to last week: December 26th.
+    float x = 350;
+    float y = december.getMeasuredHeight() - 150;
+    assertThat(december.onTouchEvent(MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, x, y, 0)))
+        .isTrue();
+    assertThat(december.onTouchEvent(MotionEvent.obtain(0, 0, MotionEvent.ACTION_UP, x, y, 0)))
+        .isTrue();
+    assertThat(view.getSelectedDate()).isEqualTo(buildCal(2012, DECEMBER, 26).getTime());
+
+    // Clicks that aren't taps, like those of accessibility services on the month, click no cell.
+    december.performClick();
+    assertThat(view.getSelectedDate()).isEqualTo(buildCal(2012, DECEMBER, 26).getTime());
+  }
+
+  @Test public void testScrollToDate() {
+    assertThat(view.scrollToDate(buildCal(2013, MARCH, 5).getTime())).isTrue();
+    assertThat(view.scrollToDate(buildCal(2012, OCTOBER, 31).getTime())).isFalse();
+    assertThat(view.scrollToDate(buildCal(2014, JANUARY, 1).getTime())).isFalse();
+  }
+
   @Test public void testOnlyShowingFourWeeks() {
-    List<List<MonthCellDescriptor>> cells = selectDateAndGetCells(FEBRUARY, 2015, today);
-    assertThat(cells).hasSize(4);
+    MonthCells cells = selectDateAndGetCells(FEBRUARY, 2015, today);
+    assertThat(cells.getNumRows()).isEqualTo(4);
 
     // Last cell should be 1.
     assertCell(cells, 0, 0, 1, true, false, false, false, NONE);
@@ -126,8 +550,8 @@ public class CalendarPickerViewTest {
   }
 
   @Test public void testOnlyShowingFiveWeeks() {
-    List<List<MonthCellDescriptor>> cells = selectDateAndGetCells(FEBRUARY, 2013, today);
-    assertThat(cells).hasSize(5);
+    MonthCells cells = selectDateAndGetCells(FEBRUARY, 2013, today);
+    assertThat(cells.getNumRows()).isEqualTo(5);
 
     // First cell is the 27th of January.
     assertCell(cells, 0, 0, 27, false, false, false, false, NONE);
@@ -143,13 +567,13 @@ public class CalendarPickerViewTest {
   }
 
   @Test public void testWeirdOverlappingYear() {
-    List<List<MonthCellDescriptor>> cells = selectDateAndGetCells(JANUARY, 2013, today);
-    assertThat(cells).hasSize(5);
+    MonthCells cells = selectDateAndGetCells(JANUARY, 2013, today);
+    assertThat(cells.getNumRows()).isEqualTo(5);
   }
 
   @Test public void testShowingSixWeeks() {
-    List<List<MonthCellDescriptor>> cells = selectDateAndGetCells(DECEMBER, 2012, today);
-    assertThat(cells).hasSize(6);
+    MonthCells cells = selectDateAndGetCells(DECEMBER, 2012, today);
+    assertThat(cells.getNumRows()).isEqualTo(6);
 
     // First cell is the 27th of November.
     assertCell(cells, 0, 0, 25, false, false, false, false, NONE);
@@ -167,24 +591,24 @@ public class CalendarPickerViewTest {
   @Test public void testIsSelected() {
     Calendar nov29 = buildCal(2012, NOVEMBER, 29);
 
-    List<List<MonthCellDescriptor>> cells = selectDateAndGetCells(NOVEMBER, 2012, nov29);
-    assertThat(cells).hasSize(5);
+    MonthCells cells = selectDateAndGetCells(NOVEMBER, 2012, nov29);
+    assertThat(cells.getNumRows()).isEqualTo(5);
     // Make sure the cell is selected when it's in November.
     assertCell(cells, 4, 4, 29, true, true, false, true, NONE);
 
     cells = selectDateAndGetCells(DECEMBER, 2012, nov29);
-    assertThat(cells).hasSize(6);
+    assertThat(cells.getNumRows()).isEqualTo(6);
     // Make sure the cell is not selected when it's in December.
     assertCell(cells, 0, 4, 29, false, false, false, false, NONE);
   }
 
   @Test public void testTodayIsToday() {
-    List<List<MonthCellDescriptor>> cells = selectDateAndGetCells(NOVEMBER, 2012, today);
+    MonthCells cells = selectDateAndGetCells(NOVEMBER, 2012, today);
     assertCell(cells, 2, 5, 16, true, true, true, true, NONE);
   }
 
   @Test public void testSelectabilityInFirstMonth() {
-    List<List<MonthCellDescriptor>> cells = selectDateAndGetCells(NOVEMBER, 2012, today);
+    MonthCells cells = selectDateAndGetCells(NOVEMBER, 2012, today);
     // 10/29 is not selectable because it's in the previous month.
     assertCell(cells, 0, 0, 28, false, false, false, false, NONE);
     // 11/1 is not selectable because it's < minDate (11/16/12).
@@ -198,7 +622,7 @@ public class CalendarPickerViewTest {
   }
 
   @Test public void testSelectabilityInLastMonth() {
-    List<List<MonthCellDescriptor>> cells = selectDateAndGetCells(NOVEMBER, 2013, today);
+    MonthCells cells = selectDateAndGetCells(NOVEMBER, 2013, today);
     // 10/29 is not selectable because it's in the previous month.
     assertCell(cells, 0, 0, 27, false, false, false, false, NONE);
     // 11/1 is selectable because it's < maxDate (11/16/13).
@@ -398,6 +822,110 @@ public class CalendarPickerViewTest {
             .isEqualTo(secondSelection.getTimeInMillis());
   }
 
+  @Test public void testMultiselectTogglesManyDates() {
+    view.init(minDate, maxDate, timeZone, locale) //
+        .inMode(MULTIPLE);
+    Calendar cal = buildCal(2012, NOVEMBER, 16);
+    for (int i = 0; i < 365; i++) {
+      view.selectDate(cal.getTime());
+      cal.add(DATE, 1);
+    }
+    assertThat(view.getSelectedDates()).hasSize(365);
+
+    // Selecting a selected date again unselects it.
+    Calendar march3 = buildCal(2013, MARCH, 3);
+    view.selectDate(march3.getTime());
+    assertThat(view.getSelectedDates()).hasSize(364);
+    assertThat(view.selectedDays.size()).isEqualTo(364);
+    assertThat(getCell(4, 3).isSelected()).isFalse();
+    assertThat(getCell(4, 4).isSelected()).isTrue();
+  }
+
+  @Test public void testMultiselectReturnsSortedDates() {
+    view.init(minDate, maxDate, timeZone, locale) //
+        .inMode(MULTIPLE);
+    Calendar jan5 = buildCal(2013, JANUARY, 5);
+    Calendar dec24 = buildCal(2012, DECEMBER, 24);
+    Calendar nov20 = buildCal(2012, NOVEMBER, 20);
+    view.selectDate(jan5.getTime());
+    view.selectDate(nov20.getTime());
+    view.selectDate(dec24.getTime());
+    assertThat(view.getSelectedDates()) //
+        .containsExactly(nov20.getTime(), dec24.getTime(), jan5.getTime()).inOrder();
+
+    view.selectDate(nov20.getTime());
+    assertThat(view.selectedDays.first()).isEqualTo(EpochDay.of(dec24));
+    assertThat(view.getSelectedDates()).containsExactly(dec24.getTime(), jan5.getTime()).inOrder();
+  }
+
+  @Test public void testBatchFilterRunsOncePerMonth() {
+    final List<Integer> counts = new ArrayList<>();
+    final boolean[] rejectAll = {false};
+    view.setDateSelectableFilter(new CalendarPickerView.BatchDateSelectableFilter() {
+      @Override public boolean isDateSelectable(Date date) {
+        throw new AssertionError("Asked for " + date + " alone");
+      }
+
+      @Override public BitSet getSelectableDates(Date start, int count) {
+        counts.add(count);
+        BitSet selectable = new BitSet(count);
+        selectable.set(0, count, !rejectAll[0]);
+        return selectable;
+      }
+    });
+    counts.clear();
+    view.init(minDate, maxDate, timeZone, locale) //
+        .inMode(RANGE);
+    assertThat(counts).hasSize(13);
+    // Only the days in range: November 16th to 30th.
+    assertThat(counts.get(0)).isEqualTo(15);
+
+    view.selectDate(buildCal(2012, NOVEMBER, 20).getTime());
+    view.selectDate(buildCal(2012, DECEMBER, 20).getTime());
+    assertThat(view.getSelectedDates()).hasSize(31);
+    assertThat(counts).hasSize(13);
+
+    rejectAll[0] = true;
+    view.invalidateSelectableDates();
+    assertThat(counts).hasSize(26);
+    assertThat(getCell(1, 10).isSelectable()).isFalse();
+  }
+
+  @Test public void testAvailabilityLoadsNearShownMonths() {
+    final List<Runnable> tasks = new ArrayList<>();
+    view.setAvailabilityProvider(new CalendarPickerView.AvailabilityProvider() {
+      @Override public BitSet getAvailableDates(Date start, int count) {
+        // The 25th of every month is booked.
+        BitSet available = new BitSet(count);
+        available.set(0, count);
+        available.clear(24);
+        return available;
+      }
+    }, new Executor() {
+      @Override public void execute(Runnable command) {
+        tasks.add(command);
+      }
+    });
+    view.init(minDate, maxDate, timeZone, locale);
+    view.getAdapter().getView(5, null, null);
+    assertThat(getCell(5, 10).isPending()).isTrue();
+    assertThat(getCell(0, 20).isPending()).isTrue();
+
+    // Scrolling away cancels the loads for the first months.
+    view.getAdapter().getView(12, null, null);
+    for (Runnable task : tasks) {
+      task.run();
+    }
+    shadowOf(Looper.getMainLooper()).idle();
+    assertThat(getCell(0, 20).isPending()).isTrue();
+    assertThat(getCell(7, 10).isPending()).isFalse();
+    assertThat(getCell(7, 10).isSelectable()).isTrue();
+    assertThat(getCell(7, 25).isSelectable()).isFalse();
+
+    // Pending dates can still be selected programmatically.
+    assertThat(view.selectDate(buildCal(2012, NOVEMBER, 20).getTime())).isTrue();
+  }
+
   @Test public void testOnDateConfiguredListener() {
     final Calendar testCal = Calendar.getInstance(timeZone, locale);
     view.setDateSelectableFilter(date -> {
@@ -428,10 +956,7 @@ public class CalendarPickerViewTest {
     Calendar jumpToCal = Calendar.getInstance(timeZone, locale);
     jumpToCal.setTime(today.getTime());
     jumpToCal.add(DATE, 1);
-    MonthCellDescriptor cellToClick =
-        new MonthCellDescriptor(jumpToCal.getTime(), true, true, true, true, true, 0,
-            RangeState.NONE);
-    view.listener.handleClick(cellToClick);
+    view.listener.handleClick(getCell(0, jumpToCal.get(DATE)));
 
     assertThat(view.selectedCals.get(0).get(DATE)).isEqualTo(jumpToCal.get(DATE));
   }
@@ -457,8 +982,7 @@ public class CalendarPickerViewTest {
     view.init(minDate, maxDate, timeZone, locale) //
         .inMode(SINGLE);
 
-    assertThat(view.highlightedCals).hasSize(0);
-    assertThat(view.highlightedCells).hasSize(0);
+    assertThat(view.highlightedDays.size()).isEqualTo(0);
   }
 
   @Test public void testHighlightingCells() {
@@ -468,11 +992,10 @@ public class CalendarPickerViewTest {
         .inMode(SINGLE)
         .withHighlightedDate(highlightedCal.getTime());
 
-    assertThat(view.highlightedCals).hasSize(1);
-    assertThat(view.highlightedCells).hasSize(1);
+    assertThat(view.highlightedDays.size()).isEqualTo(1);
 
-    List<List<MonthCellDescriptor>> cells = getCells(NOVEMBER, 2012);
-    assertThat(cells.get(3).get(2).isHighlighted()).isTrue();
+    MonthCells cells = getCells(NOVEMBER, 2012);
+    assertThat(cells.isHighlighted(3 * 7 + 2)).isTrue();
   }
 
   private void assertRangeSelectionBehavior() {
@@ -525,7 +1048,8 @@ public class CalendarPickerViewTest {
 
   private void assertRangeSelected() {
     assertThat(view.selectedCals).hasSize(2);
-    assertThat(view.selectedCells).hasSize(7);
+    // Only the ends of a range have their own cells: the days between are derived from them.
+    assertThat(view.selectedCells).hasSize(2);
     assertThat(view.getSelectedDates()).hasSize(7);
   }
 
@@ -548,17 +1072,89 @@ public class CalendarPickerViewTest {
     wasAbleToSetDate = view.selectDate(endCal.getTime());
     assertThat(wasAbleToSetDate).isTrue();
 
-    List<List<MonthCellDescriptor>> cells = getCells(NOVEMBER, 2012);
+    MonthCells cells = getCells(NOVEMBER, 2012);
     assertCell(cells, 2, 6, 17, true, true, false, true, FIRST);
-    assertCell(cells, 3, 0, 18, true, false, false, true, MIDDLE);
-    assertCell(cells, 3, 1, 19, true, false, false, true, MIDDLE);
-    assertCell(cells, 3, 2, 20, true, false, false, true, MIDDLE);
-    assertCell(cells, 3, 3, 21, true, false, false, true, MIDDLE);
-    assertCell(cells, 3, 4, 22, true, false, false, true, MIDDLE);
-    assertCell(cells, 3, 5, 23, true, false, false, true, MIDDLE);
+    assertCell(cells, 3, 0, 18, true, true, false, true, MIDDLE);
+    assertCell(cells, 3, 1, 19, true, true, false, true, MIDDLE);
+    assertCell(cells, 3, 2, 20, true, true, false, true, MIDDLE);
+    assertCell(cells, 3, 3, 21, true, true, false, true, MIDDLE);
+    assertCell(cells, 3, 4, 22, true, true, false, true, MIDDLE);
+    assertCell(cells, 3, 5, 23, true, true, false, true, MIDDLE);
     assertCell(cells, 3, 6, 24, true, true, false, true, LAST);
   }
 
+  @Test public void testDefaultCellsDrawTheirDayNumber() {
+    MonthView monthView = (MonthView) view.getAdapter().getView(1, null, null);
+    CalendarRowView firstWeek = (CalendarRowView) monthView.grid.getChildAt(1);
+    CalendarCellView cell = (CalendarCellView) firstWeek.getChildAt(6);
+    assertThat(cell.getChildCount()).isEqualTo(0);
+    assertThat(cell.getDayOfMonthTextView().getText().toString()).isEqualTo("1");
+
+    view.setCustomDayView(new DayViewAdapter() {
+      @Override public void makeCellView(CalendarCellView parent) {
+        TextView textView = new TextView(parent.getContext());
+        parent.addView(textView);
+        parent.setDayOfMonthTextView(textView);
+      }
+    });
+    monthView = (MonthView) view.getAdapter().getView(1, null, null);
+    firstWeek = (CalendarRowView) monthView.grid.getChildAt(1);
+    cell = (CalendarCellView) firstWeek.getChildAt(6);
+    assertThat(cell.getChildCount()).isEqualTo(1);
+    assertThat(cell.getDayOfMonthTextView()).isSameInstanceAs(cell.getChildAt(0));
+    assertThat(cell.getDayOfMonthTextView().getText().toString()).isEqualTo("1");
+  }
+
+  @Test public void testDefaultCellsMeasureMultiLineDayNumbers() {
+    MonthView monthView = (MonthView) view.getAdapter().getView(1, null, null);
+    CalendarRowView firstWeek = (CalendarRowView) monthView.grid.getChildAt(1);
+    CalendarCellView cell = (CalendarCellView) firstWeek.getChildAt(6);
+    cell.measure(makeMeasureSpec(100, EXACTLY), makeMeasureSpec(0, UNSPECIFIED));
+    int oneLineHeight = cell.getMeasuredHeight();
+
+    cell.getDayOfMonthTextView().setText("1\ntitle");
+    cell.measure(makeMeasureSpec(100, EXACTLY), makeMeasureSpec(0, UNSPECIFIED));
+    int twoLineHeight = cell.getMeasuredHeight();
+    assertThat(twoLineHeight).isGreaterThan(oneLineHeight);
+
+    cell.getDayOfMonthTextView().setPadding(0, 10, 0, 10);
+    cell.measure(makeMeasureSpec(100, EXACTLY), makeMeasureSpec(0, UNSPECIFIED));
+    assertThat(cell.getMeasuredHeight()).isEqualTo(twoLineHeight + 20);
+  }
+
+  @Test public void testDayLabelsAreSharedByPickersWithTheSameFormats() {
+    DateFormat format = new SimpleDateFormat("EEE", Locale.US);
+    DayLabels labels = DayLabels.get(Locale.US, false, format, Calendar.MONDAY);
+    assertThat(labels.getWeekdayName(0)).isEqualTo("Mon");
+    assertThat(labels.getWeekdayName(6)).isEqualTo("Sun");
+    assertThat(labels.getDayNumber(31)).isEqualTo("31");
+
+    // Changing the format afterwards doesn't change the labels made with it.
+    format.setTimeZone(TimeZone.getTimeZone("Pacific/Kiritimati"));
+    assertThat(DayLabels.get(Locale.US, false, new SimpleDateFormat("EEE", Locale.US),
+        Calendar.MONDAY)).isSameInstanceAs(labels);
+    assertThat(DayLabels.get(Locale.US, false, format, Calendar.MONDAY))
+        .isNotSameInstanceAs(labels);
+    assertThat(DayLabels.get(Locale.US, false, format, Calendar.SUNDAY).getWeekdayName(0))
+        .isEqualTo("Sun");
+
+    long today = view.today.getTimeInMillis();
+    view.createMonthView(view);
+    assertThat(view.today.getTimeInMillis()).isEqualTo(today);
+  }
+
+  @Test public void testMonthLabelsAreCachedWithoutChangingTheDefaultLocale() {
+    Locale defaultLocale = Locale.getDefault();
+    int december2012 = 2012 * 12 + DECEMBER;
+    String label = MonthLabels.get(activity, Locale.GERMAN, false, december2012);
+    assertThat(label).isEqualTo("Dezember 2012");
+    assertThat(MonthLabels.get(activity, Locale.GERMAN, false, december2012))
+        .isSameInstanceAs(label);
+    assertThat(MonthLabels.get(activity, new Locale("ar"), true, december2012))
+        .endsWith(" 2012");
+    assertThat(Locale.getDefault()).isEqualTo(defaultLocale);
+  }
+
   @Ignore("These tests don't pass on the JVM that we run in GithubActions. Ignoring for now.")
   @Test public void testLocaleSetting() {
     view.init(minDate, maxDate, Locale.GERMAN);
@@ -598,8 +1194,8 @@ public class CalendarPickerViewTest {
     TextView firstDay = (TextView) header.getChildAt(0);
     assertThat(firstDay.getText()).isEqualTo("Mon"); // Monday!
 
-    List<List<MonthCellDescriptor>> cells = getCells(SEPTEMBER, 2013);
-    assertThat(cells).hasSize(6);
+    MonthCells cells = getCells(SEPTEMBER, 2013);
+    assertThat(cells.getNumRows()).isEqualTo(6);
     assertCell(cells, 0, 0, 26, false, false, false, false, NONE);
     assertCell(cells, 1, 0, 2, true, false, false, true, NONE);
     assertCell(cells, 5, 0, 30, true, false, false, true, NONE);
@@ -620,6 +1216,51 @@ public class CalendarPickerViewTest {
     assertThat(thirdDay.getText()).isEqualTo("W"); // Wednesday!
   }
 
+  @Test public void testMonthDecoratorsOnlyRunWhenSomethingChanged() {
+    final int christmas = EpochDay.of(2012, DECEMBER, 25);
+    final List<Integer> decorated = new ArrayList<>();
+    final long[] version = {1};
+    view.setMonthDecorators(Collections.<MonthDecorator>singletonList(new MonthDecorator() {
+      @Override public boolean affects(int firstDay, int lastDay) {
+        return firstDay <= christmas && christmas <= lastDay;
+      }
+
+      @Override public long getVersion() {
+        return version[0];
+      }
+
+      @Override public void decorate(Cells cells) {
+        decorated.add(cells.getMonth());
+        for (int cell = 0; cell < cells.size(); cell++) {
+          boolean isChristmas = cells.getDay(cell) == christmas;
+          if (isChristmas) {
+            assertThat(cells.getFlags(cell) & (CURRENT_MONTH | SELECTABLE))
+                .isEqualTo(CURRENT_MONTH | SELECTABLE);
+          }
+          cells.getCellView(cell).setHighlighted(isChristmas);
+        }
+      }
+    }));
+
+    MonthView monthView = (MonthView) view.getAdapter().getView(1, null, null);
+    assertThat(decorated).containsExactly(DECEMBER);
+    // Nothing changed.
+    view.getAdapter().getView(1, monthView, null);
+    assertThat(decorated).hasSize(1);
+    // January isn't affected, but the view needs undecorating.
+    view.getAdapter().getView(2, monthView, null);
+    assertThat(decorated).containsExactly(DECEMBER, JANUARY).inOrder();
+    view.getAdapter().getView(3, monthView, null);
+    assertThat(decorated).hasSize(2);
+
+    // Back to December, then a new version of the decorator.
+    view.getAdapter().getView(1, monthView, null);
+    version[0]++;
+    view.refreshDecorations();
+    view.getAdapter().getView(1, monthView, null);
+    assertThat(decorated).containsExactly(DECEMBER, JANUARY, DECEMBER, DECEMBER).inOrder();
+  }
+
   @Test public void testCellClickInterceptor() {
     view.init(minDate, maxDate, locale);
     view.setCellClickInterceptor(new CalendarPickerView.CellClickInterceptor() {
@@ -630,20 +1271,11 @@ public class CalendarPickerViewTest {
         return cal.get(MONTH) == NOVEMBER && cal.get(DAY_OF_MONTH) == 18;
       }
     });
-    Calendar jumpToCal = Calendar.getInstance(locale);
-    jumpToCal.setTime(today.getTime());
-    jumpToCal.set(DAY_OF_MONTH, 17);
-    MonthCellDescriptor cellToClick =
-        new MonthCellDescriptor(jumpToCal.getTime(), true, true, true, true, true, 0,
-            RangeState.NONE);
-    view.listener.handleClick(cellToClick);
+    view.listener.handleClick(getCell(0, 17));
 
     assertThat(view.selectedCals.get(0).get(DATE)).isEqualTo(17);
 
-    jumpToCal.set(DAY_OF_MONTH, 18);
-    cellToClick = new MonthCellDescriptor(jumpToCal.getTime(), true, true, true, true, true, 0,
-        RangeState.NONE);
-    view.listener.handleClick(cellToClick);
+    view.listener.handleClick(getCell(0, 18));
 
     assertThat(view.selectedCals.get(0).get(DATE)).isEqualTo(17);
   }
@@ -671,11 +1303,44 @@ public class CalendarPickerViewTest {
     assertThat(view.getSelectedDate()).isNotEqualTo(calendarDefault.getTime());
   }
 
-  private static void assertCell(List<List<MonthCellDescriptor>> cells, int row, int col,
+  @Test public void testDaylightSavingTimeStartingAtMidnight() {
+    // Clocks in Sao Paulo went from 00:00 straight to 01:00 on October 21st, 2012.
+    timeZone = TimeZone.getTimeZone("America/Sao_Paulo");
+    Calendar oct1 = buildCal(2012, OCTOBER, 1);
+    Calendar nov1 = buildCal(2012, NOVEMBER, 1);
+    view.init(oct1.getTime(), nov1.getTime(), timeZone, locale);
+
+    MonthCells cells = getCells(OCTOBER, 2012);
+    assertCell(cells, 3, 0, 21, true, false, false, true, NONE);
+    assertCell(cells, 4, 3, 31, true, false, false, true, NONE);
+
+    Calendar oct21 = buildCal(2012, OCTOBER, 21);
+    assertThat(view.selectDate(oct21.getTime())).isTrue();
+    Calendar selected = Calendar.getInstance(timeZone, locale);
+    selected.setTime(view.getSelectedDate());
+    assertThat(selected.get(DAY_OF_MONTH)).isEqualTo(21);
+    selected.setTime(getCell(0, 22).getDate());
+    assertThat(selected.get(DAY_OF_MONTH)).isEqualTo(22);
+
+    // Midnight was skipped: the 21st starts at 01:00.
+    selected.setTime(getCell(0, 21).getDate());
+    assertThat(selected.get(DAY_OF_MONTH)).isEqualTo(21);
+    assertThat(selected.get(HOUR_OF_DAY)).isEqualTo(1);
+    assertThat(EpochDay.of(getCell(0, 21).getDate(), timeZone))
+        .isEqualTo(EpochDay.of(2012, OCTOBER, 21));
+
+    view.clearSelectedDates();
+    view.listener.handleClick(getCell(0, 21));
+    selected.setTime(view.getSelectedDate());
+    assertThat(selected.get(DAY_OF_MONTH)).isEqualTo(21);
+    assertThat(view.getSelectedDates()).containsExactly(getCell(0, 21).getDate());
+  }
+
+  private static void assertCell(MonthCells cells, int row, int col,
       int expectedVal, boolean expectedCurrentMonth, boolean expectedSelected,
       boolean expectedToday, boolean expectedSelectable,
       RangeState expectedRangeState) {
-    final MonthCellDescriptor cell = cells.get(row).get(col);
+    final MonthCellDescriptor cell = cells.getCell(row * 7 + col);
     assertThat(cell.getValue()).isEqualTo(expectedVal);
     assertThat(cell.isCurrentMonth()).isEqualTo(expectedCurrentMonth);
     assertThat(cell.isSelected()).isEqualTo(expectedSelected);
@@ -684,18 +1349,29 @@ public class CalendarPickerViewTest {
     assertThat(cell.getRangeState()).isEqualTo(expectedRangeState);
   }
 
-  private List<List<MonthCellDescriptor>> selectDateAndGetCells(int month, int year,
+  private MonthCells selectDateAndGetCells(int month, int year,
       Calendar selectedDate) {
     view.selectDate(selectedDate.getTime());
     return getCells(month, year);
   }
 
-  private List<List<MonthCellDescriptor>> getCells(int month, int year) {
+  /** Returns the cell of the given day in the month at {@code monthIndex}. */
+  private MonthCellDescriptor getCell(int monthIndex, int dayOfMonth) {
+    MonthCells cells = view.getMonthCells(monthIndex);
+    for (int index = 0; index < cells.size(); index++) {
+      if (cells.isCurrentMonth(index) && cells.getValue(index) == dayOfMonth) {
+        return cells.getCell(index);
+      }
+    }
+    throw new AssertionError("No day " + dayOfMonth + " in month " + monthIndex);
+  }
+
+  private MonthCells getCells(int month, int year) {
     Calendar cal = Calendar.getInstance(timeZone, locale);
     cal.set(DAY_OF_MONTH, 1);
     cal.set(YEAR, year);
     cal.set(MONTH, month);
-    return view.getMonthCells(new MonthDescriptor(month, year, cal.getTime(), "January 2012"), cal);
+    return view.getMonthCells(new MonthDescriptor(month, year, cal.getTime(), "January 2012"));
   }
 
   private Calendar buildCal(int year, @MagicConstant(intValues = {